@@ -0,0 +1,54 @@
+package mate.academy.bookshop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.BookSpecificationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSpecificationBenchmark {
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20);
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    private BookRepository bookRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp(BookshopState state) {
+        bookSpecificationBuilder = state.getBean(BookSpecificationBuilder.class);
+        bookRepository = state.getBean(BookRepository.class);
+        transactionTemplate = state.getBean(TransactionTemplate.class);
+    }
+
+    @Benchmark
+    public Specification<Book> build(BookshopState state) {
+        return bookSpecificationBuilder.build(state.getSearchParameters());
+    }
+
+    @Benchmark
+    public List<Book> buildAndQuery(BookshopState state) {
+        Specification<Book> specification = bookSpecificationBuilder
+                .build(state.getSearchParameters());
+        return transactionTemplate.execute(status
+                -> bookRepository.findAll(specification, PAGEABLE).getContent());
+    }
+}
@@ -0,0 +1,109 @@
+package mate.academy.bookshop.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import mate.academy.bookshop.BookshopApplication;
+import mate.academy.bookshop.dto.book.BookSearchParametersDto;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.model.ShoppingCart;
+import mate.academy.bookshop.repository.ShoppingCartRepository;
+import mate.academy.bookshop.repository.book.BookRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@State(Scope.Benchmark)
+public class BookshopState {
+    static final String CART_USER_EMAIL = "user@example.com";
+    static final String CONFIG_NAME = "--spring.config.name=benchmark";
+    private static final int CATEGORIES = 20;
+    private static final int BOOKS = 2_000;
+    private static final int CATEGORIES_PER_BOOK = 3;
+    private static final int CART_ITEMS = 25;
+    private static final int STOCK = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private ConfigurableApplicationContext context;
+    private List<Book> books;
+    private ShoppingCart shoppingCart;
+    private BookSearchParametersDto searchParameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookshopApplication.class)
+                .run(CONFIG_NAME);
+        seed(context.getBean(JdbcTemplate.class));
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        books = transactionTemplate.execute(status
+                -> bookRepository.findAll(PageRequest.of(0, PAGE_SIZE)).getContent());
+        Long userId = context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT id FROM users WHERE email = ?", Long.class, CART_USER_EMAIL);
+        shoppingCart = transactionTemplate.execute(status -> context
+                .getBean(ShoppingCartRepository.class)
+                .findByUserId(userId)
+                .orElseThrow());
+        searchParameters = new BookSearchParametersDto();
+        searchParameters.setAuthors(new String[]{"Author 1", "Author 2", "Author 3"});
+        searchParameters.setTitles(new String[]{"Book Title 10", "Book Title 11"});
+        searchParameters.setPriceRange(new String[]{"10", "60"});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public ShoppingCart getShoppingCart() {
+        return shoppingCart;
+    }
+
+    public BookSearchParametersDto getSearchParameters() {
+        return searchParameters;
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> categories = new ArrayList<>();
+        for (long id = 1; id <= CATEGORIES; id++) {
+            categories.add(new Object[]{id, "Category " + id, "Description " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, description, is_deleted) "
+                + "VALUES (?, ?, ?, false)", categories);
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> booksCategories = new ArrayList<>();
+        for (long id = 1; id <= BOOKS; id++) {
+            books.add(new Object[]{id, "Book Title " + id, "Author " + id % 100,
+                    "ISBN-" + id, BigDecimal.valueOf(10 + id % 50),
+                    "Description for Book " + id, "coverImage" + id + ".jpg", STOCK});
+            for (int i = 0; i < CATEGORIES_PER_BOOK; i++) {
+                booksCategories.add(new Object[]{id, (id + i) % CATEGORIES + 1});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, isbn, price, "
+                + "description, cover_image, stock, is_deleted) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, false)",
+                books);
+        jdbcTemplate.batchUpdate("INSERT INTO books_categories (book_id, category_id) "
+                + "VALUES (?, ?)", booksCategories);
+        jdbcTemplate.update("INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                + "SELECT sc.id, b.id, 2 FROM shopping_carts sc "
+                + "JOIN users u ON u.id = sc.user_id "
+                + "JOIN books b ON b.id <= ? "
+                + "WHERE u.email = ?", CART_ITEMS, CART_USER_EMAIL);
+    }
+}
@@ -0,0 +1,70 @@
+package mate.academy.bookshop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import mate.academy.bookshop.dto.shoppingcart.CartItemRequestDto;
+import mate.academy.bookshop.dto.shoppingcart.CartResponseDto;
+import mate.academy.bookshop.service.ShoppingCartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class CartContentionBenchmark {
+    private static final Long CONTENDED_BOOK_ID = 1_000L;
+    private static final CartItemRequestDto ADD_ONE = new CartItemRequestDto(
+            CONTENDED_BOOK_ID, 1);
+    private final AtomicLong addedQuantity = new AtomicLong();
+    private ShoppingCartService shoppingCartService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(BookshopState state) {
+        shoppingCartService = state.getBean(ShoppingCartService.class);
+        jdbcTemplate = state.getBean(JdbcTemplate.class);
+        userId = state.getShoppingCart().getUser().getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetContendedItem() {
+        jdbcTemplate.update("DELETE FROM cart_items WHERE book_id = ?", CONTENDED_BOOK_ID);
+        addedQuantity.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyTotal() {
+        Long stored = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) "
+                + "FROM cart_items WHERE book_id = ?", Long.class, CONTENDED_BOOK_ID);
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items "
+                + "WHERE book_id = ?", Long.class, CONTENDED_BOOK_ID);
+        if (stored != addedQuantity.get() || rows > 1) {
+            throw new IllegalStateException("Lost cart updates: added " + addedQuantity.get()
+                    + ", stored " + stored + " in " + rows + " rows");
+        }
+    }
+
+    @Benchmark
+    public CartResponseDto addSameBook() {
+        CartResponseDto cart = shoppingCartService.addBookToShoppingCart(ADD_ONE, userId);
+        addedQuantity.incrementAndGet();
+        return cart;
+    }
+}
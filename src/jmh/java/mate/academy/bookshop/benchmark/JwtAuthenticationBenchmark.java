@@ -0,0 +1,90 @@
+package mate.academy.bookshop.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import mate.academy.bookshop.model.User;
+import mate.academy.bookshop.security.JwtTokenCache;
+import mate.academy.bookshop.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+    private static final String SECRET = "dpas0-dik-a90jdf09gh903r032opnpfsad{}320rjnsf/>OPJ/f";
+    private static final String EMAIL = "user@example.com";
+    private SecretKey secretKey;
+    private JwtUtil jwtUtil;
+    private JwtTokenCache jwtTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtUtil = new JwtUtil(SECRET, Duration.ofHours(1).toMillis());
+        token = jwtUtil.generateToken(EMAIL);
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setRoles(Set.of());
+        jwtTokenCache = new JwtTokenCache(jwtUtil, username -> user, new SimpleMeterRegistry(),
+                1_000, Duration.ofMinutes(5));
+        jwtTokenCache.getPrincipal(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String rebuiltParserPerCall() {
+        Jws<Claims> claimsJws = Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token);
+        if (claimsJws.getPayload().getExpiration().before(new Date())) {
+            return null;
+        }
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String parseAndValidate() {
+        return jwtUtil.parseAndValidate(token)
+                .map(Claims::getSubject)
+                .orElse(null);
+    }
+
+    @Benchmark
+    public UserDetails cachedPrincipal() {
+        return jwtTokenCache.getPrincipal(token);
+    }
+}
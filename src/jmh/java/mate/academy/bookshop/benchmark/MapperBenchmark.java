@@ -0,0 +1,49 @@
+package mate.academy.bookshop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.mapper.BookMapper;
+import mate.academy.bookshop.mapper.OrderMapper;
+import mate.academy.bookshop.model.order.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final OrderRequestDto ORDER_REQUEST = new OrderRequestDto("Address");
+    private BookMapper bookMapper;
+    private OrderMapper orderMapper;
+
+    @Setup
+    public void setUp(BookshopState state) {
+        bookMapper = state.getBean(BookMapper.class);
+        orderMapper = state.getBean(OrderMapper.class);
+    }
+
+    @Benchmark
+    public List<BookDto> bookToDto(BookshopState state) {
+        return state.getBooks().stream()
+                .map(bookMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public Order orderFromShoppingCart(BookshopState state) {
+        return orderMapper.fromShoppingCart(state.getShoppingCart(), ORDER_REQUEST);
+    }
+}
@@ -0,0 +1,62 @@
+package mate.academy.bookshop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.mapper.BookMapper;
+import mate.academy.bookshop.repository.book.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+    private static final Pageable PAGEABLE = PageRequest.of(0, 100);
+    private BookRepository bookRepository;
+    private BookMapper bookMapper;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp(BookshopState state) {
+        bookRepository = state.getBean(BookRepository.class);
+        bookMapper = state.getBean(BookMapper.class);
+        PlatformTransactionManager transactionManager =
+                state.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<BookDto> readWrite() {
+        return readWriteTransaction.execute(status -> loadPage());
+    }
+
+    @Benchmark
+    public List<BookDto> readOnly() {
+        return readOnlyTransaction.execute(status -> loadPage());
+    }
+
+    private List<BookDto> loadPage() {
+        return bookRepository.findAll(PAGEABLE).stream()
+                .map(bookMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,79 @@
+package mate.academy.bookshop.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import mate.academy.bookshop.BookshopApplication;
+import mate.academy.bookshop.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class RequestThroughputBenchmark {
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+    @Param({"20"})
+    private int poolSize;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest booksRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookshopApplication.class)
+                .run(BookshopState.CONFIG_NAME,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        BookshopState.seed(context.getBean(JdbcTemplate.class));
+        String token = context.getBean(JwtUtil.class)
+                .generateToken(BookshopState.CART_USER_EMAIL);
+        String port = context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        booksRequest = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/books?page=0&size=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getBooksPage() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(booksRequest,
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,76 @@
+package mate.academy.bookshop.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import mate.academy.bookshop.dto.book.BookDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookDtoCache {
+    private static final int OBJECT_OVERHEAD = 64;
+    private static final int CATEGORY_ID_WEIGHT = 32;
+    private final Cache<Long, BookDto> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BookDtoCache(@Value("${cache.books.maximum-weight}") long maximumWeight,
+                        @Value("${cache.books.expire-after-write}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(this::weigh)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public BookDto get(Long id, Function<Long, BookDto> loader) {
+        BookDto bookDto = cache.getIfPresent(id);
+        if (bookDto != null) {
+            return bookDto;
+        }
+        long generation = invalidations.get();
+        bookDto = loader.apply(id);
+        cache.put(id, bookDto);
+        if (invalidations.get() != generation) {
+            cache.asMap().remove(id, bookDto);
+        }
+        return bookDto;
+    }
+
+    public void evict(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void evictByCategoryId(Long categoryId) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(bookDto -> bookDto.getCategoryIds() != null
+                && bookDto.getCategoryIds().contains(categoryId));
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private int weigh(Long id, BookDto bookDto) {
+        int categories = bookDto.getCategoryIds() == null ? 0 : bookDto.getCategoryIds().size();
+        return OBJECT_OVERHEAD
+                + length(bookDto.getTitle())
+                + length(bookDto.getAuthor())
+                + length(bookDto.getDescription())
+                + length(bookDto.getCoverImage())
+                + categories * CATEGORY_ID_WEIGHT;
+    }
+
+    private int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
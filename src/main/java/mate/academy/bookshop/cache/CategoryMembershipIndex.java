@@ -0,0 +1,159 @@
+package mate.academy.bookshop.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.CategoryMembership;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryMembershipIndex {
+    private static final long[] EMPTY = new long[0];
+    private final BookRepository bookRepository;
+    private volatile Map<Long, long[]> bookIdsByCategoryId = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private List<Consumer<Map<Long, long[]>>> pendingWrites;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            pendingWrites = new ArrayList<>();
+        }
+        Map<Long, long[]> index = new ConcurrentHashMap<>();
+        try (Stream<CategoryMembership> memberships = bookRepository.streamCategoryMemberships()) {
+            Iterator<CategoryMembership> iterator = memberships.iterator();
+            Long categoryId = null;
+            long[] bookIds = EMPTY;
+            int size = 0;
+            while (iterator.hasNext()) {
+                CategoryMembership membership = iterator.next();
+                if (!membership.categoryId().equals(categoryId)) {
+                    putIfNotEmpty(index, categoryId, bookIds, size);
+                    categoryId = membership.categoryId();
+                    bookIds = new long[16];
+                    size = 0;
+                }
+                if (size == bookIds.length) {
+                    bookIds = Arrays.copyOf(bookIds, size * 2);
+                }
+                bookIds[size++] = membership.bookId();
+            }
+            putIfNotEmpty(index, categoryId, bookIds, size);
+        }
+        synchronized (writeLock) {
+            pendingWrites.forEach(write -> write.accept(index));
+            pendingWrites = null;
+            bookIdsByCategoryId = index;
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> findBookIds(Long categoryId, long offset, int limit) {
+        long[] bookIds = bookIdsByCategoryId.getOrDefault(categoryId, EMPTY);
+        int from = (int) Math.min(offset, bookIds.length);
+        return slice(bookIds, from, limit);
+    }
+
+    public List<Long> findBookIdsAfter(Long categoryId, long afterId, int limit) {
+        long[] bookIds = bookIdsByCategoryId.getOrDefault(categoryId, EMPTY);
+        int position = Arrays.binarySearch(bookIds, afterId);
+        int from = position >= 0 ? position + 1 : -position - 1;
+        return slice(bookIds, from, limit);
+    }
+
+    public void add(Long bookId, Collection<Long> categoryIds) {
+        addAll(Map.of(bookId, categoryIds));
+    }
+
+    public void addAll(Map<Long, ? extends Collection<Long>> categoryIdsByBookId) {
+        Map<Long, List<Long>> added = new HashMap<>();
+        categoryIdsByBookId.forEach((bookId, categoryIds) -> categoryIds.forEach(categoryId
+                -> added.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(bookId)));
+        write(index -> added.forEach((categoryId, bookIds) -> index.merge(categoryId,
+                bookIds.stream()
+                        .mapToLong(Long::longValue)
+                        .sorted()
+                        .distinct()
+                        .toArray(),
+                this::merge)));
+    }
+
+    public void removeBook(Long bookId) {
+        write(index -> index.replaceAll((categoryId, bookIds) -> {
+            int position = Arrays.binarySearch(bookIds, bookId);
+            if (position < 0) {
+                return bookIds;
+            }
+            long[] remaining = new long[bookIds.length - 1];
+            System.arraycopy(bookIds, 0, remaining, 0, position);
+            System.arraycopy(bookIds, position + 1, remaining, position,
+                    remaining.length - position);
+            return remaining;
+        }));
+    }
+
+    public void removeCategory(Long categoryId) {
+        write(index -> index.remove(categoryId));
+    }
+
+    private void write(Consumer<Map<Long, long[]>> write) {
+        synchronized (writeLock) {
+            write.accept(bookIdsByCategoryId);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        }
+    }
+
+    private void putIfNotEmpty(Map<Long, long[]> index, Long categoryId,
+                               long[] bookIds, int size) {
+        if (size > 0) {
+            index.put(categoryId, Arrays.copyOf(bookIds, size));
+        }
+    }
+
+    private List<Long> slice(long[] bookIds, int from, int limit) {
+        int to = (int) Math.min((long) from + limit, bookIds.length);
+        return Arrays.stream(bookIds, from, to)
+                .boxed()
+                .toList();
+    }
+
+    private long[] merge(long[] left, long[] right) {
+        long[] merged = new long[left.length + right.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length || j < right.length) {
+            long next;
+            if (j == right.length || (i < left.length && left[i] <= right[j])) {
+                next = left[i++];
+            } else {
+                next = right[j++];
+            }
+            if (size == 0 || merged[size - 1] != next) {
+                merged[size++] = next;
+            }
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+}
@@ -0,0 +1,51 @@
+package mate.academy.bookshop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import mate.academy.bookshop.datasource.DataSourceRole;
+import mate.academy.bookshop.datasource.ReadYourWritesTracker;
+import mate.academy.bookshop.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+public class DataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+    @ConfigurationProperties("replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource")
+                                 ObjectProvider<DataSource> replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(readYourWritesTracker);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primaryDataSource,
+                DataSourceRole.REPLICA, replicaDataSource.getIfAvailable(() -> primaryDataSource)));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,24 @@
+package mate.academy.bookshop.config;
+
+import java.util.List;
+import mate.academy.bookshop.metrics.EntityLoadCountingIntegrator;
+import mate.academy.bookshop.metrics.RequestStatisticsInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateStatisticsConfig {
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    new RequestStatisticsInspector());
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package mate.academy.bookshop.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+@Configuration
+public class OrderQueueConfig {
+    private static final String THREAD_NAME_PREFIX = "order-worker-";
+    private static final Duration AWAIT_TERMINATION = Duration.ofSeconds(30);
+
+    @Bean
+    public AsyncTaskExecutor orderQueueExecutor(
+            Environment environment,
+            ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+            @Value("${order-queue.workers}") int workers,
+            @Value("${order-queue.capacity}") int capacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncTaskExecutorBuilder
+                    .virtualThreads(true)
+                    .threadNamePrefix(THREAD_NAME_PREFIX)
+                    .concurrencyLimit(workers)
+                    .taskTerminationTimeout(AWAIT_TERMINATION)
+                    .build();
+        }
+        return threadPoolTaskExecutorBuilder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(capacity)
+                .threadNamePrefix(THREAD_NAME_PREFIX)
+                .awaitTermination(true)
+                .awaitTerminationPeriod(AWAIT_TERMINATION)
+                .build();
+    }
+}
@@ -54,6 +54,10 @@ public class SecurityConfig {
                                         "/swagger-resources/**",
                                         "/webjars/**")
                                 .permitAll()
+                                .requestMatchers("/actuator/health")
+                                .permitAll()
+                                .requestMatchers("/actuator/**")
+                                .hasRole("ADMIN")
                                 .anyRequest()
                                 .authenticated()
                 )
@@ -2,15 +2,26 @@ package mate.academy.bookshop.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.CursorSliceDto;
+import mate.academy.bookshop.dto.book.BookCacheStatsDto;
 import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookImportResultDto;
 import mate.academy.bookshop.dto.book.BookSearchParametersDto;
+import mate.academy.bookshop.dto.book.BookStockDto;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
+import mate.academy.bookshop.dto.book.RestockRequestDto;
+import mate.academy.bookshop.service.BookImportService;
 import mate.academy.bookshop.service.BookService;
+import mate.academy.bookshop.service.InventoryService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +30,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Book management", description = "Endpoints for managing books"
         + "credentials for test user = 'user@example.com', 'user' "
@@ -30,6 +43,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("books")
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final InventoryService inventoryService;
 
     @Operation(summary = "Get all books",
             description = "Get certain page of books with custom size")
@@ -38,20 +53,52 @@ public class BookController {
         return bookService.findAll(pageable);
     }
 
+    @Operation(summary = "Scroll through all books",
+            description = "Get the next slice of books after the 'after' cursor "
+                    + "returned by the previous call, without counting all books")
+    @GetMapping("/scroll")
+    public CursorSliceDto<BookDto> scroll(@RequestParam(required = false) String after,
+                                          Pageable pageable) {
+        return bookService.findAllAfter(after, pageable);
+    }
+
+    @Operation(summary = "Export all books",
+            description = "Stream every book with its isbn, stock and category ids as "
+                    + "newline-delimited JSON. The output can be uploaded to /books/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookService.exportAll(response.getOutputStream());
+    }
+
     @Operation(summary = "Get book by id",
             description = "Get book by id")
     @GetMapping("/{id}")
-    public BookDto getById(@PathVariable Long id) {
+    public BookDto getById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(bookService.getVersion(id)))) {
+            return null;
+        }
         return bookService.findBookById(id);
     }
 
     @Operation(summary = "Get books which match searchParameters",
-            description = "Get books which match searchParameters")
+            description = "Get books which match searchParameters. When 'query' is set, "
+                    + "books are full-text ranked by title, author and description; it can't "
+                    + "be combined with the other filters")
     @GetMapping("/search")
     public List<BookDto> searchBooks(BookSearchParametersDto searchParameters, Pageable pageable) {
         return bookService.search(searchParameters, pageable);
     }
 
+    @Operation(summary = "Get book cache statistics",
+            description = "Get size, hit, miss and eviction counters of the book cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache-stats")
+    public BookCacheStatsDto getCacheStats() {
+        return bookService.getCacheStats();
+    }
+
     @Operation(summary = "Create a new book",
             description = "Create a new book")
     @PreAuthorize("hasRole('ADMIN')")
@@ -61,6 +108,34 @@ public class BookController {
         return bookService.save(requestDto);
     }
 
+    @Operation(summary = "Import books",
+            description = "Import books from newline-delimited JSON with one book per line, "
+                    + "in the same format as book creation or /books/export. Lines that "
+                    + "can't be imported "
+                    + "are reported with their line number")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BookImportResultDto importBooks(InputStream inputStream) throws IOException {
+        return bookImportService.importBooks(inputStream);
+    }
+
+    @Operation(summary = "Get book stock",
+            description = "Get the number of units of the book available for ordering")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/stock")
+    public BookStockDto getStock(@PathVariable Long id) {
+        return inventoryService.getStock(id);
+    }
+
+    @Operation(summary = "Restock book",
+            description = "Add units of the book to its available stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/stock")
+    public BookStockDto restock(@PathVariable Long id,
+                                @RequestBody @Valid RestockRequestDto requestDto) {
+        return inventoryService.restock(id, requestDto.quantity());
+    }
+
     @Operation(summary = "Update book by id",
             description = "Update book by id")
     @PreAuthorize("hasRole('ADMIN')")
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.category.CategoryRequestDto;
 import mate.academy.bookshop.dto.category.CategoryResponseDto;
@@ -19,8 +20,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Category management", description = "Endpoints for managing categories"
         + "credentials for test user = 'user@example.com', 'user' "
@@ -41,7 +44,10 @@ public class CategoryController {
     @Operation(summary = "Get category by id",
             description = "Get category by id")
     @GetMapping("/{id}")
-    public CategoryResponseDto getById(@PathVariable Long id) {
+    public CategoryResponseDto getById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(categoryService.getVersion(id)))) {
+            return null;
+        }
         return categoryService.getById(id);
     }
 
@@ -53,6 +59,17 @@ public class CategoryController {
         return categoryService.getBooksByCategoryId(id, pageable);
     }
 
+    @Operation(summary = "Scroll through books by category id",
+            description = "Get the next slice of books in category after the 'after' cursor "
+                    + "returned by the previous call")
+    @GetMapping("/{id}/books/scroll")
+    public CursorSliceDto<BookDtoWithoutCategoryIds> scrollBooksByCategoryId(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return categoryService.getBooksByCategoryIdAfter(id, after, pageable);
+    }
+
     @Operation(summary = "Create a new category",
             description = "Create a new category")
     @PostMapping
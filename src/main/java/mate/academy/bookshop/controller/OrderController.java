@@ -3,16 +3,25 @@ package mate.academy.bookshop.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.net.URI;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
 import mate.academy.bookshop.dto.order.UpdateOrderDto;
 import mate.academy.bookshop.model.User;
+import mate.academy.bookshop.model.order.OrderRequestStatus;
+import mate.academy.bookshop.service.AsyncOrderService;
 import mate.academy.bookshop.service.OrderService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,9 +29,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Tag(name = "Order management", description = "Endpoints for managing orders"
         + "credentials for test user = 'user@example.com', 'user' "
@@ -31,7 +44,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("orders")
 @RequiredArgsConstructor
 public class OrderController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     private final OrderService orderService;
+    private final AsyncOrderService asyncOrderService;
 
     @Operation(summary = "Place an order",
             description = "Place an order with items from shopping cart")
@@ -44,6 +59,42 @@ public class OrderController {
         return orderService.placeOrder(requestDto, user.getId());
     }
 
+    @Operation(summary = "Place an order asynchronously",
+            description = "Queue an order with items from shopping cart and return a status "
+                    + "URL. Repeating the request with the same Idempotency-Key returns the "
+                    + "original request instead of placing another order")
+    @PostMapping("/async")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<OrderRequestStatusDto> placeOrderAsync(
+            @RequestHeader(IDEMPOTENCY_KEY) @NotBlank @Size(max = 64) String idempotencyKey,
+            @RequestBody @Valid OrderRequestDto requestDto,
+            Authentication authentication) {
+        User user = ((User) authentication.getPrincipal());
+        OrderRequestStatusDto orderRequest = asyncOrderService.submit(requestDto, user.getId(),
+                idempotencyKey);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/orders/requests/{idempotencyKey}")
+                .buildAndExpand(idempotencyKey)
+                .toUri();
+        HttpStatus status = OrderRequestStatus.PENDING.name().equals(orderRequest.status())
+                ? HttpStatus.ACCEPTED
+                : HttpStatus.OK;
+        return ResponseEntity.status(status)
+                .location(location)
+                .body(orderRequest);
+    }
+
+    @Operation(summary = "Get asynchronous order status",
+            description = "Get the status of an order placed asynchronously by its "
+                    + "Idempotency-Key")
+    @GetMapping("/requests/{idempotencyKey}")
+    @PreAuthorize("hasRole('USER')")
+    public OrderRequestStatusDto getOrderRequest(@PathVariable String idempotencyKey,
+                                                 Authentication authentication) {
+        User user = ((User) authentication.getPrincipal());
+        return asyncOrderService.getStatus(user.getId(), idempotencyKey);
+    }
+
     @Operation(summary = "Get user order history",
             description = "Returns all orders placed by user")
     @GetMapping
@@ -54,6 +105,41 @@ public class OrderController {
         return orderService.getOrders(user.getId(), pageable);
     }
 
+    @Operation(summary = "Scroll through user order history",
+            description = "Get the next slice of user orders, newest first, after the "
+                    + "'after' cursor returned by the previous call")
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('USER')")
+    public CursorSliceDto<OrderResponseDto> scrollOrders(
+            @RequestParam(required = false) String after,
+            Pageable pageable,
+            Authentication authentication) {
+        User user = ((User) authentication.getPrincipal());
+        return orderService.getOrdersAfter(user.getId(), after, pageable);
+    }
+
+    @Operation(summary = "Get user order summaries",
+            description = "Get item count, total, status and first book title of user "
+                    + "orders, newest first")
+    @GetMapping("/summaries")
+    @PreAuthorize("hasRole('USER')")
+    public List<OrderSummaryDto> getOrderSummaries(Pageable pageable,
+                                                   Authentication authentication) {
+        User user = ((User) authentication.getPrincipal());
+        return orderService.getOrderSummaries(user.getId(), pageable);
+    }
+
+    @Operation(summary = "Get order summaries of all users",
+            description = "Get summaries of all orders, newest first, optionally filtered "
+                    + "by status")
+    @GetMapping("/summaries/all")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<OrderSummaryDto> getAllOrderSummaries(
+            @RequestParam(required = false) String status,
+            Pageable pageable) {
+        return orderService.getAllOrderSummaries(status, pageable);
+    }
+
     @Operation(summary = "Change order status",
             description = "Change order status")
     @PatchMapping("/{id}")
@@ -67,7 +153,11 @@ public class OrderController {
             description = "Get all items from order by id")
     @GetMapping("{orderId}/items")
     public List<OrderItemResponseDto> getOrderItems(@PathVariable("orderId") Long orderId,
-                                                    Pageable pageable) {
+                                                    Pageable pageable,
+                                                    WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(orderService.getVersion(orderId)))) {
+            return null;
+        }
         return orderService.getItems(orderId, pageable);
     }
 
@@ -75,7 +165,11 @@ public class OrderController {
             description = "Get item by id from order by id")
     @GetMapping("{orderId}/items/{itemId}")
     public OrderItemResponseDto getOrderItemByOrderId(@PathVariable("orderId") Long orderId,
-                                                      @PathVariable("itemId") Long itemId) {
+                                                      @PathVariable("itemId") Long itemId,
+                                                      WebRequest webRequest) {
+        if (webRequest.checkNotModified(String.valueOf(orderService.getVersion(orderId)))) {
+            return null;
+        }
         return orderService.getItemByOrderId(orderId, itemId);
     }
 }
@@ -0,0 +1,6 @@
+package mate.academy.bookshop.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
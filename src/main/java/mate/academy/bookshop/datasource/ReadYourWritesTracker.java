@@ -0,0 +1,28 @@
+package mate.academy.bookshop.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReadYourWritesTracker {
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${replica.max-lag}") Duration maxLag,
+                                 @Value("${replica.max-tracked-users}") long maxTrackedUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterWrite(maxLag)
+                .build();
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean hasRecentWrite(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,50 @@
+package mate.academy.bookshop.datasource;
+
+import mate.academy.bookshop.model.User;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(userId);
+            return DataSourceRole.PRIMARY;
+        }
+        if (userId != null && readYourWritesTracker.hasRecentWrite(userId)) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    private void recordWriteOnCommit(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(userId);
+                    }
+                });
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
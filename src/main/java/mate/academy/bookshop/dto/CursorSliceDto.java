@@ -0,0 +1,9 @@
+package mate.academy.bookshop.dto;
+
+import java.util.List;
+
+public record CursorSliceDto<T>(
+        List<T> content,
+        String next
+) {
+}
@@ -0,0 +1,10 @@
+package mate.academy.bookshop.dto.book;
+
+public record BookCacheStatsDto(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
@@ -0,0 +1,17 @@
+package mate.academy.bookshop.dto.book;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+public record BookExportDto(
+        Long id,
+        String title,
+        String author,
+        String isbn,
+        BigDecimal price,
+        String description,
+        String coverImage,
+        int stock,
+        Set<Long> categories
+) {
+}
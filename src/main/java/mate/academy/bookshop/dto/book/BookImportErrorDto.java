@@ -0,0 +1,7 @@
+package mate.academy.bookshop.dto.book;
+
+public record BookImportErrorDto(
+        long line,
+        String message
+) {
+}
@@ -0,0 +1,10 @@
+package mate.academy.bookshop.dto.book;
+
+import java.util.List;
+
+public record BookImportResultDto(
+        long imported,
+        long failed,
+        List<BookImportErrorDto> errors
+) {
+}
@@ -8,4 +8,5 @@ public class BookSearchParametersDto {
     private String[] authors;
     private String[] priceRange;
     private String[] isbns;
+    private String query;
 }
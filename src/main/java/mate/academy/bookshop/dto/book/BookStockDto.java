@@ -0,0 +1,7 @@
+package mate.academy.bookshop.dto.book;
+
+public record BookStockDto(
+        Long bookId,
+        long available
+) {
+}
@@ -32,6 +32,9 @@ public class CreateBookRequestDto {
 
     private String coverImage;
 
+    @Min(value = 0, message = "min value is 0")
+    private int stock;
+
     private Set<Long> categories;
 }
 
@@ -0,0 +1,9 @@
+package mate.academy.bookshop.dto.book;
+
+import jakarta.validation.constraints.Min;
+
+public record RestockRequestDto(
+        @Min(1)
+        int quantity
+) {
+}
@@ -0,0 +1,9 @@
+package mate.academy.bookshop.dto.order;
+
+public record OrderRequestStatusDto(
+        String idempotencyKey,
+        String status,
+        Long orderId,
+        String error
+) {
+}
@@ -0,0 +1,15 @@
+package mate.academy.bookshop.dto.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummaryDto(
+        Long orderId,
+        Long userId,
+        LocalDateTime orderDate,
+        String status,
+        BigDecimal total,
+        int itemCount,
+        String firstBookTitle
+) {
+}
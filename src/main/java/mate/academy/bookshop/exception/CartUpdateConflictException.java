@@ -0,0 +1,7 @@
+package mate.academy.bookshop.exception;
+
+public class CartUpdateConflictException extends RuntimeException {
+    public CartUpdateConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -46,6 +46,12 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return handleException(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidSearchParametersException.class)
+    protected ResponseEntity<Object> handleInvalidSearchParameters(
+            InvalidSearchParametersException ex) {
+        return handleException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
     @ExceptionHandler(RegistrationException.class)
     protected ResponseEntity<Object> handleRegistrationException(
             RegistrationException ex) {
@@ -64,6 +70,30 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return handleException(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    protected ResponseEntity<Object> handleInvalidCursorException(
+            InvalidCursorException ex) {
+        return handleException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(CartUpdateConflictException.class)
+    protected ResponseEntity<Object> handleCartUpdateConflictException(
+            CartUpdateConflictException ex) {
+        return handleException(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    protected ResponseEntity<Object> handleInsufficientStockException(
+            InsufficientStockException ex) {
+        return handleException(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    protected ResponseEntity<Object> handleOrderQueueFullException(
+            OrderQueueFullException ex) {
+        return handleException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     private String getErrorMessage(ObjectError e) {
         if (e instanceof FieldError) {
             String field = ((FieldError) e).getField();
@@ -0,0 +1,7 @@
+package mate.academy.bookshop.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package mate.academy.bookshop.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package mate.academy.bookshop.exception;
+
+public class InvalidSearchParametersException extends RuntimeException {
+    public InvalidSearchParametersException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package mate.academy.bookshop.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+    public OrderQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package mate.academy.bookshop.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -7,13 +7,14 @@ import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
 import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.Category;
+import mate.academy.bookshop.repository.book.BookRow;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 
-@Mapper(config = MapperConfig.class, uses = CategoryMapper.class)
+@Mapper(config = MapperConfig.class, uses = {CategoryMapper.class, CategoryResolver.class})
 public interface BookMapper {
 
     @Mapping(target = "id", source = "book.id")
@@ -22,7 +23,13 @@ public interface BookMapper {
     @Mapping(target = "categories", source = "categories", qualifiedByName = "categoriesById")
     Book toModel(CreateBookRequestDto requestDto);
 
-    BookDtoWithoutCategoryIds toDtoWithoutCategories(Book book);
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "categories", ignore = true)
+    Book toModelWithoutCategories(CreateBookRequestDto requestDto);
+
+    BookDtoWithoutCategoryIds toDtoWithoutCategories(BookRow bookRow);
 
     @AfterMapping
     default void setCategoryIds(@MappingTarget BookDto bookDto, Book book) {
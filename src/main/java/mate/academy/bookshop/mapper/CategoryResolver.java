@@ -0,0 +1,45 @@
+package mate.academy.bookshop.mapper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.model.Category;
+import mate.academy.bookshop.repository.CategoryRepository;
+import org.mapstruct.Named;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryResolver {
+    private final CategoryRepository categoryRepository;
+
+    public static String missingCategoriesMessage(Collection<Long> missingIds) {
+        List<Long> sortedIds = missingIds.stream()
+                .sorted()
+                .toList();
+        if (sortedIds.size() == 1) {
+            return "There is no category with id " + sortedIds.get(0);
+        }
+        return "There are no categories with ids " + sortedIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(", "));
+    }
+
+    @Named("categoriesById")
+    public Set<Category> resolve(Set<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Category> categories = categoryRepository.findAllById(categoryIds);
+        if (categories.size() < categoryIds.size()) {
+            Set<Long> missingIds = new HashSet<>(categoryIds);
+            categories.forEach(category -> missingIds.remove(category.getId()));
+            throw new EntityNotFoundException(missingCategoriesMessage(missingIds));
+        }
+        return new HashSet<>(categories);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.stream.Collectors;
 import mate.academy.bookshop.config.MapperConfig;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.model.order.OrderItem;
+import mate.academy.bookshop.repository.OrderItemRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -14,6 +15,8 @@ public interface OrderItemMapper {
     @Mapping(target = "bookId", source = "book.id")
     OrderItemResponseDto toDto(OrderItem item);
 
+    OrderItemResponseDto toDto(OrderItemRow itemRow);
+
     @Named("mapOrderItems")
     default Set<OrderItemResponseDto> mapOrderItems(Set<OrderItem> items) {
         return items.stream()
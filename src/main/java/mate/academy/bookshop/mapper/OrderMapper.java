@@ -4,12 +4,14 @@ import java.math.BigDecimal;
 import java.util.Set;
 import java.util.stream.Collectors;
 import mate.academy.bookshop.config.MapperConfig;
+import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
 import mate.academy.bookshop.model.CartItem;
 import mate.academy.bookshop.model.ShoppingCart;
 import mate.academy.bookshop.model.order.Order;
 import mate.academy.bookshop.model.order.OrderItem;
+import mate.academy.bookshop.repository.OrderRow;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -22,6 +24,9 @@ public interface OrderMapper {
     @Mapping(target = "orderItems", source = "orderItems", qualifiedByName = "mapOrderItems")
     OrderResponseDto toDto(Order order);
 
+    @Mapping(target = "orderItems", source = "orderItems")
+    OrderResponseDto toDto(OrderRow orderRow, Set<OrderItemResponseDto> orderItems);
+
     Order toEntity(OrderRequestDto requestDto);
 
     @Mapping(target = "id", ignore = true)
@@ -0,0 +1,11 @@
+package mate.academy.bookshop.mapper;
+
+import mate.academy.bookshop.config.MapperConfig;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
+import mate.academy.bookshop.model.order.OrderRequest;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MapperConfig.class)
+public interface OrderRequestMapper {
+    OrderRequestStatusDto toDto(OrderRequest orderRequest);
+}
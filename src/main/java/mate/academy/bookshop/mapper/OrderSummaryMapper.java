@@ -0,0 +1,11 @@
+package mate.academy.bookshop.mapper;
+
+import mate.academy.bookshop.config.MapperConfig;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
+import mate.academy.bookshop.model.order.OrderSummary;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MapperConfig.class)
+public interface OrderSummaryMapper {
+    OrderSummaryDto toDto(OrderSummary orderSummary);
+}
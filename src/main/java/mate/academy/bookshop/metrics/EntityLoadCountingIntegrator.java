@@ -0,0 +1,26 @@
+package mate.academy.bookshop.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+public class EntityLoadCountingIntegrator implements Integrator {
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD,
+                        (PostLoadEventListener) event -> RequestStatistics.entityLoaded());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,61 @@
+package mate.academy.bookshop.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class RequestStatistics {
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+    private int entityLoadCount;
+    private String mostRepeatedStatement;
+    private int mostRepeatedStatementCount;
+
+    private RequestStatistics() {
+    }
+
+    public static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static void statementPrepared(String sql) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statementCount++;
+            int count = statistics.statementCounts.merge(sql, 1, Integer::sum);
+            if (count > statistics.mostRepeatedStatementCount) {
+                statistics.mostRepeatedStatementCount = count;
+                statistics.mostRepeatedStatement = sql;
+            }
+        }
+    }
+
+    public static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoadCount++;
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getEntityLoadCount() {
+        return entityLoadCount;
+    }
+
+    public String getMostRepeatedStatement() {
+        return mostRepeatedStatement;
+    }
+
+    public int getMostRepeatedStatementCount() {
+        return mostRepeatedStatementCount;
+    }
+}
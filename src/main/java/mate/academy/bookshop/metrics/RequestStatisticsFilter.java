@@ -0,0 +1,104 @@
+package mate.academy.bookshop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import mate.academy.bookshop.exception.StatementBudgetExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+    public static final String STATEMENT_COUNT_ATTRIBUTE = "bookshop.statementCount";
+    private static final String STATEMENTS_SUMMARY = "bookshop.hibernate.statements";
+    private static final String ENTITY_LOADS_SUMMARY = "bookshop.hibernate.entity.loads";
+    private static final String BUDGET_EXCEEDED_COUNTER = "bookshop.hibernate.budget.exceeded";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeatedStatements;
+    private final boolean failOnExceeded;
+
+    public RequestStatisticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.budget.max-statements}") int maxStatements,
+            @Value("${sql.budget.max-repeated-statements}") int maxRepeatedStatements,
+            @Value("${sql.budget.fail-on-exceeded}") boolean failOnExceeded) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeatedStatements = maxRepeatedStatements;
+        this.failOnExceeded = failOnExceeded;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.stop();
+        }
+        String uri = resolveUri(request);
+        request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, statistics.getStatementCount());
+        record(request.getMethod(), uri, statistics);
+        checkBudget(request.getMethod(), uri, statistics);
+    }
+
+    private void record(String method, String uri, RequestStatistics statistics) {
+        DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatementCount());
+        DistributionSummary.builder(ENTITY_LOADS_SUMMARY)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getEntityLoadCount());
+    }
+
+    private void checkBudget(String method, String uri, RequestStatistics statistics) {
+        boolean tooManyStatements = statistics.getStatementCount() > maxStatements;
+        boolean repeatedStatement = statistics.getMostRepeatedStatementCount()
+                > maxRepeatedStatements;
+        if (!tooManyStatements && !repeatedStatement) {
+            return;
+        }
+        String reason = repeatedStatement ? "repeated-statement" : "statement-count";
+        meterRegistry.counter(BUDGET_EXCEEDED_COUNTER,
+                "method", method, "uri", uri, "reason", reason).increment();
+        log.warn("event=sql_budget_exceeded reason={} method={} uri={} statements={} "
+                        + "max_statements={} repeated={} max_repeated={} statement=\"{}\"",
+                reason, method, uri, statistics.getStatementCount(), maxStatements,
+                statistics.getMostRepeatedStatementCount(), maxRepeatedStatements,
+                statistics.getMostRepeatedStatement());
+        if (failOnExceeded) {
+            throw new StatementBudgetExceededException(String.format(
+                    "%s %s executed %d statements (budget %d), "
+                            + "most repeated %d times (budget %d): %s",
+                    method, uri, statistics.getStatementCount(), maxStatements,
+                    statistics.getMostRepeatedStatementCount(), maxRepeatedStatements,
+                    statistics.getMostRepeatedStatement()));
+        }
+    }
+
+    private String resolveUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN_URI : pattern.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package mate.academy.bookshop.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class RequestStatisticsInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,48 @@
+package mate.academy.bookshop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Set;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    private static final String SERVICE_TIMER = "bookshop.service";
+    private static final String NONE = "none";
+    private final MeterRegistry meterRegistry;
+    private final Set<String> histogramMethods;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${service-metrics.histogram-methods}")
+                                Set<String> histogramMethods) {
+        this.meterRegistry = meterRegistry;
+        this.histogramMethods = histogramMethods;
+    }
+
+    @Around("execution(public * mate.academy.bookshop.service.impl.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String methodName = joinPoint.getSignature().getName();
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram(
+                            histogramMethods.contains(className + "." + methodName))
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
@@ -24,7 +25,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Getter
 @EqualsAndHashCode(exclude = "categories")
 @ToString(exclude = "categories")
-@SQLDelete(sql = "UPDATE books SET is_deleted = true WHERE id=?")
+@SQLDelete(sql = "UPDATE books SET is_deleted = true, version = version + 1 "
+        + "WHERE id = ? AND version = ?")
 @SQLRestriction("is_deleted=false")
 @Table(name = "books")
 public class Book {
@@ -44,6 +46,11 @@ public class Book {
     private String coverImage;
     @Column(name = "is_deleted", nullable = false)
     private boolean isDeleted;
+    @Column(nullable = false, updatable = false)
+    private int stock;
+    @Version
+    @Column(nullable = false)
+    private Long version;
     @ManyToMany
     @JoinTable(name = "books_categories",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -1,5 +1,6 @@
 package mate.academy.bookshop.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +9,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,7 +24,13 @@ import lombok.ToString;
 @Table(name = "cart_items")
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_item_id_generator")
+    @TableGenerator(name = "cart_item_id_generator",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_value",
+            pkColumnValue = "cart_items",
+            allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shopping_cart_id", nullable = false)
@@ -30,4 +39,7 @@ public class CartItem {
     @JoinColumn(name = "book_id", nullable = false)
     private Book book;
     private int quantity;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
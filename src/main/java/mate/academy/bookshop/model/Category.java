@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,7 +20,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Setter
 @EqualsAndHashCode
 @ToString
-@SQLDelete(sql = "UPDATE categories SET is_deleted = true WHERE id=?")
+@SQLDelete(sql = "UPDATE categories SET is_deleted = true, version = version + 1 "
+        + "WHERE id = ? AND version = ?")
 @SQLRestriction("is_deleted=false")
 @NoArgsConstructor
 @Table(name = "categories")
@@ -32,6 +34,9 @@ public class Category {
     private String description;
     @Column(name = "is_deleted")
     private boolean isDeleted;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     public Category(Long id) {
         this.id = id;
@@ -1,5 +1,6 @@
 package mate.academy.bookshop.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -12,6 +13,7 @@ import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -52,4 +54,7 @@ public class ShoppingCart {
     private User user;
     @OneToMany(mappedBy = "shoppingCart")
     private Set<CartItem> cartItems;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
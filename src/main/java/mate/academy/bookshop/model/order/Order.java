@@ -16,6 +16,8 @@ import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -46,7 +48,13 @@ import mate.academy.bookshop.model.User;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(name = "order_id_generator",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_value",
+            pkColumnValue = "orders",
+            allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -60,6 +68,9 @@ public class Order {
     private LocalDateTime orderDate;
     @Column(name = "shipping_address", nullable = false)
     private String shippingAddress;
+    @Version
+    @Column(nullable = false)
+    private Long version;
     @OneToMany(cascade = CascadeType.PERSIST, mappedBy = "order")
     private Set<OrderItem> orderItems;
 }
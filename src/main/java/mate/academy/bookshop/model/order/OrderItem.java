@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,8 +20,15 @@ import mate.academy.bookshop.model.Book;
 @Setter
 @Table(name = "order_items")
 public class OrderItem {
+    public static final int ID_ALLOCATION_SIZE = 50;
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_generator")
+    @TableGenerator(name = "order_item_id_generator",
+            table = "id_generators",
+            pkColumnName = "name",
+            valueColumnName = "next_value",
+            pkColumnValue = "order_items",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
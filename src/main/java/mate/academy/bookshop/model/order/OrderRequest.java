@@ -0,0 +1,37 @@
+package mate.academy.bookshop.model.order;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "order_requests")
+public class OrderRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    @Column(name = "shipping_address", nullable = false)
+    private String shippingAddress;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderRequestStatus status;
+    @Column(name = "order_id")
+    private Long orderId;
+    private String error;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
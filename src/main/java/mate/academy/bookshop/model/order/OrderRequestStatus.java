@@ -0,0 +1,7 @@
+package mate.academy.bookshop.model.order;
+
+public enum OrderRequestStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
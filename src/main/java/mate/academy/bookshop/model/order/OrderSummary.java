@@ -0,0 +1,35 @@
+package mate.academy.bookshop.model.order;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "order_summaries")
+public class OrderSummary {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+    @Column(name = "status", nullable = false, columnDefinition = "VARCHAR(255)")
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @Column(name = "total", nullable = false)
+    private BigDecimal total;
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+    @Column(name = "first_book_title")
+    private String firstBookTitle;
+}
@@ -1,10 +1,29 @@
 package mate.academy.bookshop.repository;
 
+import java.util.List;
+import java.util.Optional;
 import mate.academy.bookshop.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    void deleteAllByShoppingCartId(Long id);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.shoppingCart.id = :shoppingCartId")
+    void deleteAllByShoppingCartId(Long shoppingCartId);
+
+    @Query("SELECT new mate.academy.bookshop.repository.CartLine(b.id, ci.quantity) "
+            + "FROM CartItem ci JOIN ci.book b "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId AND b.isDeleted = false")
+    List<CartLine> findOrderableLines(Long shoppingCartId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CartItem ci SET ci.quantity = ci.quantity + :quantity, "
+            + "ci.version = ci.version + 1 "
+            + "WHERE ci.shoppingCart.id = :shoppingCartId AND ci.book.id = :bookId")
+    int incrementQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
 }
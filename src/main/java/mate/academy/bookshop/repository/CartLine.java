@@ -0,0 +1,5 @@
+package mate.academy.bookshop.repository;
+
+public record CartLine(Long bookId,
+                       int quantity) {
+}
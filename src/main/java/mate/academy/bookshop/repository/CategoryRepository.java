@@ -1,9 +1,13 @@
 package mate.academy.bookshop.repository;
 
+import java.util.Optional;
 import mate.academy.bookshop.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @Query("SELECT c.version FROM Category c WHERE c.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -1,10 +1,29 @@
 package mate.academy.bookshop.repository;
 
+import java.util.Collection;
+import java.util.List;
 import mate.academy.bookshop.model.order.OrderItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    Page<OrderItem> findByOrderId(Long orderId, Pageable pageable);
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>,
+        OrderItemRepositoryCustom {
+    Page<OrderItem> findByOrderIdOrderByIdAsc(Long orderId, Pageable pageable);
+
+    @Query("SELECT new mate.academy.bookshop.repository.OrderItemRow(oi.order.id, oi.id, "
+            + "oi.book.id, oi.price, oi.quantity) "
+            + "FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<OrderItemRow> findRowsByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO order_items (id, order_id, book_id, quantity, price) "
+            + "SELECT :firstId + ROW_NUMBER() OVER (ORDER BY ci.id) - 1, :orderId, "
+            + "ci.book_id, ci.quantity, b.price "
+            + "FROM cart_items ci "
+            + "JOIN books b ON b.id = ci.book_id AND b.is_deleted = false "
+            + "WHERE ci.shopping_cart_id = :shoppingCartId", nativeQuery = true)
+    int insertFromShoppingCart(Long orderId, Long shoppingCartId, long firstId);
 }
@@ -0,0 +1,5 @@
+package mate.academy.bookshop.repository;
+
+public interface OrderItemRepositoryCustom {
+    long reserveIds(int count);
+}
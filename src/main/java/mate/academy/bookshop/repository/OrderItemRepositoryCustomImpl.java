@@ -0,0 +1,30 @@
+package mate.academy.bookshop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import mate.academy.bookshop.model.order.OrderItem;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+    private static final String ADVANCE_ID_BLOCK = "UPDATE id_generators "
+            + "SET next_value = next_value + :size WHERE name = 'order_items'";
+    private static final String FIND_NEXT_VALUE = "SELECT next_value FROM id_generators "
+            + "WHERE name = 'order_items'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveIds(int count) {
+        int blocks = (count + OrderItem.ID_ALLOCATION_SIZE - 1) / OrderItem.ID_ALLOCATION_SIZE;
+        long size = (long) blocks * OrderItem.ID_ALLOCATION_SIZE;
+        entityManager.createNativeQuery(ADVANCE_ID_BLOCK)
+                .setParameter("size", size)
+                .executeUpdate();
+        long nextValue = ((Number) entityManager.createNativeQuery(FIND_NEXT_VALUE)
+                .getSingleResult()).longValue();
+        return nextValue - size - OrderItem.ID_ALLOCATION_SIZE + 1;
+    }
+}
@@ -0,0 +1,10 @@
+package mate.academy.bookshop.repository;
+
+import java.math.BigDecimal;
+
+public record OrderItemRow(Long orderId,
+                           Long id,
+                           Long bookId,
+                           BigDecimal price,
+                           int quantity) {
+}
@@ -1,11 +1,16 @@
 package mate.academy.bookshop.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import mate.academy.bookshop.model.order.Order;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     @EntityGraph(value = "orderWithItemsAndBooks",
@@ -13,7 +18,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Override
     Optional<Order> findById(Long id);
 
-    @EntityGraph(value = "orderWithItemsAndBooks",
-            type = EntityGraph.EntityGraphType.FETCH)
-    List<Order> findAllByUserId(Long userId, Pageable pageable);
+    @Query("SELECT o.version FROM Order o WHERE o.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE orders SET total = (SELECT COALESCE(SUM(oi.price * oi.quantity), 0) "
+            + "FROM order_items oi WHERE oi.order_id = :orderId), version = version + 1 "
+            + "WHERE id = :orderId",
+            nativeQuery = true)
+    void updateTotal(Long orderId);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findOrderIdsByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT new mate.academy.bookshop.repository.OrderRow(o.id, o.user.id, "
+            + "o.orderDate, o.total, o.status) FROM Order o WHERE o.id IN :ids")
+    List<OrderRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId "
+            + "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    Slice<Long> findIdsByUserIdBefore(Long userId, LocalDateTime orderDate, Long id,
+                                      Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package mate.academy.bookshop.repository;
+
+import java.util.List;
+import java.util.Optional;
+import mate.academy.bookshop.model.order.OrderRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+    Optional<OrderRequest> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Query("SELECT r.id FROM OrderRequest r "
+            + "WHERE r.status = mate.academy.bookshop.model.order.OrderRequestStatus.PENDING "
+            + "ORDER BY r.id")
+    List<Long> findPendingIds();
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderRequest r "
+            + "SET r.status = mate.academy.bookshop.model.order.OrderRequestStatus.COMPLETED, "
+            + "r.orderId = :orderId "
+            + "WHERE r.id = :id "
+            + "AND r.status = mate.academy.bookshop.model.order.OrderRequestStatus.PENDING")
+    int markCompleted(Long id, Long orderId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderRequest r "
+            + "SET r.status = mate.academy.bookshop.model.order.OrderRequestStatus.FAILED, "
+            + "r.error = :error "
+            + "WHERE r.id = :id "
+            + "AND r.status = mate.academy.bookshop.model.order.OrderRequestStatus.PENDING")
+    int markFailed(Long id, String error);
+}
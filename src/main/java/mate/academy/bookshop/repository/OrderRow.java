@@ -0,0 +1,12 @@
+package mate.academy.bookshop.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import mate.academy.bookshop.model.order.Status;
+
+public record OrderRow(Long id,
+                       Long userId,
+                       LocalDateTime orderDate,
+                       BigDecimal total,
+                       Status status) {
+}
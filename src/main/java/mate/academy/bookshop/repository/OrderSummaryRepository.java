@@ -0,0 +1,36 @@
+package mate.academy.bookshop.repository;
+
+import java.util.List;
+import mate.academy.bookshop.model.order.OrderSummary;
+import mate.academy.bookshop.model.order.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+    @Query("SELECT s FROM OrderSummary s WHERE s.userId = :userId "
+            + "ORDER BY s.orderDate DESC, s.orderId DESC")
+    List<OrderSummary> findByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT s FROM OrderSummary s ORDER BY s.orderDate DESC, s.orderId DESC")
+    List<OrderSummary> findLatest(Pageable pageable);
+
+    @Query("SELECT s FROM OrderSummary s WHERE s.status = :status "
+            + "ORDER BY s.orderDate DESC, s.orderId DESC")
+    List<OrderSummary> findLatestByStatus(Status status, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_summaries (order_id, user_id, order_date, status, total, "
+            + "item_count, first_book_title) "
+            + "SELECT o.id, o.user_id, o.order_date, o.status, o.total, "
+            + "(SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = o.id), "
+            + "(SELECT b.title FROM order_items oi JOIN books b ON b.id = oi.book_id "
+            + "WHERE oi.order_id = o.id ORDER BY oi.id LIMIT 1) "
+            + "FROM orders o WHERE o.id = :orderId", nativeQuery = true)
+    int insertForOrder(Long orderId);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status WHERE s.orderId = :orderId")
+    int updateStatus(Long orderId, Status status);
+}
@@ -4,6 +4,7 @@ import java.util.Optional;
 import mate.academy.bookshop.model.ShoppingCart;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,4 +12,11 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long
     @EntityGraph(value = "shoppingCartWithItemsAndBooks",
             type = EntityGraph.EntityGraphType.FETCH)
     Optional<ShoppingCart> findByUserId(Long email);
+
+    @Query("SELECT sc.id FROM ShoppingCart sc WHERE sc.user.id = :userId")
+    Optional<Long> findIdByUserId(Long userId);
+
+    @Query(value = "SELECT id FROM shopping_carts WHERE user_id = :userId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Long> lockIdByUserId(Long userId);
 }
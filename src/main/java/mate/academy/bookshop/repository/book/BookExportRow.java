@@ -0,0 +1,14 @@
+package mate.academy.bookshop.repository.book;
+
+import java.math.BigDecimal;
+
+public record BookExportRow(Long id,
+                            String title,
+                            String author,
+                            String isbn,
+                            BigDecimal price,
+                            String description,
+                            String coverImage,
+                            int stock,
+                            Long categoryId) {
+}
@@ -0,0 +1,12 @@
+package mate.academy.bookshop.repository.book;
+
+import java.math.BigDecimal;
+
+public record BookIndexRow(Long id,
+                           String title,
+                           String author,
+                           BigDecimal price,
+                           String description,
+                           String coverImage,
+                           Long categoryId) {
+}
@@ -1,30 +1,85 @@
 package mate.academy.bookshop.repository.book;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import mate.academy.bookshop.model.Book;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
-    @EntityGraph(attributePaths = "categories")
-    Page<Book> findAll(Pageable pageable);
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
+    String MYSQL_STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
 
     @EntityGraph(attributePaths = "categories")
-    Page<Book> findAll(Specification<Book> specification, Pageable pageable);
+    Optional<Book> findById(Long id);
+
+    @Query(value = "SELECT new mate.academy.bookshop.repository.book.BookRow(b.id, b.title, "
+            + "b.author, b.price, b.description, b.coverImage) "
+            + "FROM Book b JOIN b.categories c WHERE c.id = :id",
+            countQuery = "SELECT COUNT(b) FROM Book b JOIN b.categories c WHERE c.id = :id")
+    Page<BookRow> findByCategoryId(Long id, Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    Slice<Long> findIdsAfter(Long afterId, Pageable pageable);
 
     @EntityGraph(attributePaths = "categories")
-    Optional<Book> findById(Long id);
+    List<Book> findAllByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new mate.academy.bookshop.repository.book.BookRow(b.id, b.title, "
+            + "b.author, b.price, b.description, b.coverImage) "
+            + "FROM Book b JOIN b.categories c "
+            + "WHERE c.id = :categoryId AND b.id > :afterId ORDER BY b.id")
+    Slice<BookRow> findByCategoryIdAfter(Long categoryId, Long afterId, Pageable pageable);
+
+    @Query("SELECT new mate.academy.bookshop.repository.book.BookRow(b.id, b.title, "
+            + "b.author, b.price, b.description, b.coverImage) "
+            + "FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<BookRow> findRowsByIdIn(Collection<Long> ids);
 
-    @Query(value = "SELECT * FROM books "
-            + "LEFT JOIN books_categories ON books.id = books_categories.book_id "
-            + "WHERE books_categories.category_id = :id",
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+            value = MYSQL_STREAMING_FETCH_SIZE))
+    @Query("SELECT new mate.academy.bookshop.repository.book.BookExportRow(b.id, b.title, "
+            + "b.author, b.isbn, b.price, b.description, b.coverImage, b.stock, c.id) "
+            + "FROM Book b LEFT JOIN b.categories c ORDER BY b.id")
+    Stream<BookExportRow> streamAllForExport();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new mate.academy.bookshop.repository.book.BookIndexRow(b.id, b.title, "
+            + "b.author, b.price, b.description, b.coverImage, c.id) "
+            + "FROM Book b LEFT JOIN b.categories c ORDER BY b.id")
+    Stream<BookIndexRow> streamAllForIndex();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new mate.academy.bookshop.repository.book.CategoryMembership(c.id, b.id) "
+            + "FROM Book b JOIN b.categories c ORDER BY c.id, b.id")
+    Stream<CategoryMembership> streamCategoryMemberships();
+
+    @Query("SELECT new mate.academy.bookshop.repository.book.BookStock(b.id, b.stock) "
+            + "FROM Book b WHERE b.id IN :ids")
+    List<BookStock> findStocksByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE books SET version = version + 1 WHERE id IN "
+            + "(SELECT book_id FROM books_categories WHERE category_id = :categoryId)",
             nativeQuery = true)
-    Page<Book> findByCategoryId(Long id, Pageable pageable);
+    void incrementVersionByCategoryId(Long categoryId);
+
+    @Query(value = "SELECT isbn FROM books WHERE isbn IN :isbns", nativeQuery = true)
+    List<String> findAllIsbnsIn(Collection<String> isbns);
 }
@@ -0,0 +1,18 @@
+package mate.academy.bookshop.repository.book;
+
+import java.util.List;
+import java.util.Map;
+import mate.academy.bookshop.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookRepositoryCustom {
+    Page<Book> findAll(Pageable pageable);
+
+    Page<Book> findAll(Specification<Book> specification, Pageable pageable);
+
+    void insertAll(List<Book> books);
+
+    void addStock(Map<Long, Long> deltas);
+}
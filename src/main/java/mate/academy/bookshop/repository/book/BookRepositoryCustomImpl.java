@@ -0,0 +1,146 @@
+package mate.academy.bookshop.repository.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.model.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    private static final String ID = "id";
+    private static final String FIND_WITH_CATEGORIES_BY_IDS = "SELECT DISTINCT b FROM Book b "
+            + "LEFT JOIN FETCH b.categories WHERE b.id IN :ids";
+    private static final String INSERT_BOOK = "INSERT INTO books "
+            + "(title, author, isbn, price, description, cover_image, stock, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, false)";
+    private static final String FIND_IDS_BY_ISBNS = "SELECT id, isbn FROM books "
+            + "WHERE isbn IN (:isbns)";
+    private static final String ADD_STOCK = "UPDATE books SET stock = stock + ? WHERE id = ?";
+    private static final String INSERT_BOOK_CATEGORY = "INSERT INTO books_categories "
+            + "(book_id, category_id) VALUES (?, ?)";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Book> findAll(Pageable pageable) {
+        return findAll(Specification.where(null), pageable);
+    }
+
+    @Override
+    public Page<Book> findAll(Specification<Book> specification, Pageable pageable) {
+        List<Long> ids = findIds(specification, pageable);
+        return PageableExecutionUtils.getPage(findWithCategoriesByIds(ids), pageable,
+                () -> count(specification));
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Book> books) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_BOOK, books, books.size(),
+                (statement, book) -> {
+                    statement.setString(1, book.getTitle());
+                    statement.setString(2, book.getAuthor());
+                    statement.setString(3, book.getIsbn());
+                    statement.setBigDecimal(4, book.getPrice());
+                    statement.setString(5, book.getDescription());
+                    statement.setString(6, book.getCoverImage());
+                    statement.setInt(7, book.getStock());
+                });
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(FIND_IDS_BY_ISBNS,
+                Map.of("isbns", books.stream().map(Book::getIsbn).toList()),
+                resultSet -> {
+                    ids.put(resultSet.getString("isbn"), resultSet.getLong("id"));
+                });
+        List<Object[]> bookCategories = new ArrayList<>();
+        for (Book book : books) {
+            book.setId(ids.get(book.getIsbn()));
+            for (Category category : book.getCategories()) {
+                bookCategories.add(new Object[]{book.getId(), category.getId()});
+            }
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_BOOK_CATEGORY, bookCategories);
+    }
+
+    @Override
+    @Transactional
+    public void addStock(Map<Long, Long> deltas) {
+        List<Object[]> updates = deltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate(ADD_STOCK, updates);
+    }
+
+    private List<Long> findIds(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get(ID));
+        applyPredicate(specification, root, query, criteriaBuilder);
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(),
+                root, criteriaBuilder));
+        if (pageable.getSort().getOrderFor(ID) == null) {
+            orders.add(criteriaBuilder.asc(root.get(ID)));
+        }
+        query.orderBy(orders);
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private List<Book> findWithCategoriesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = entityManager
+                .createQuery(FIND_WITH_CATEGORIES_BY_IDS, Book.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .toList();
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(criteriaBuilder.count(root));
+        applyPredicate(specification, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applyPredicate(Specification<Book> specification, Root<Book> root,
+                                CriteriaQuery<Long> query, CriteriaBuilder criteriaBuilder) {
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package mate.academy.bookshop.repository.book;
+
+import java.math.BigDecimal;
+
+public record BookRow(Long id,
+                      String title,
+                      String author,
+                      BigDecimal price,
+                      String description,
+                      String coverImage) {
+}
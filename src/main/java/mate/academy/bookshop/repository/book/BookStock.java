@@ -0,0 +1,5 @@
+package mate.academy.bookshop.repository.book;
+
+public record BookStock(Long bookId,
+                        int stock) {
+}
@@ -0,0 +1,5 @@
+package mate.academy.bookshop.repository.book;
+
+public record CategoryMembership(Long categoryId,
+                                 Long bookId) {
+}
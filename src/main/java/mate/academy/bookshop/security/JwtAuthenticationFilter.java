@@ -1,17 +1,17 @@
 package mate.academy.bookshop.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
-import mate.academy.bookshop.util.JwtUtil;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,8 +22,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER = "Bearer ";
     private static final int TOKEN_INDEX = 7;
-    private final UserDetailsService userDetailsService;
-    private final JwtUtil jwtUtil;
+    private static final String FILTER_TIMER = "bookshop.jwt.filter";
+    private final JwtTokenCache jwtTokenCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -31,10 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain
     ) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
         String token = getToken(request);
-        if (token != null && jwtUtil.isValid(token)) {
-            String username = jwtUtil.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = token == null ? null : jwtTokenCache.getPrincipal(token);
+        sample.stop(meterRegistry.timer(FILTER_TIMER,
+                "authenticated", String.valueOf(userDetails != null)));
+        if (userDetails != null) {
             Authentication authentication = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
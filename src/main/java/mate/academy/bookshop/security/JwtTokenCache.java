@@ -0,0 +1,154 @@
+package mate.academy.bookshop.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import mate.academy.bookshop.model.User;
+import mate.academy.bookshop.util.AfterCommit;
+import mate.academy.bookshop.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JwtTokenCache {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String AUTHENTICATION_TIMER = "bookshop.jwt.authentication";
+    private static final String CACHE_COUNTER = "bookshop.jwt.cache";
+    private final Cache<String, AuthenticatedToken> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+    private final Duration maximumTimeToLive;
+    private final Timer digestTimer;
+    private final Timer parseAndVerifyTimer;
+    private final Timer userLoadTimer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidCounter;
+
+    public JwtTokenCache(JwtUtil jwtUtil,
+                         UserDetailsService userDetailsService,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.cache.maximum-size}") long maximumSize,
+                         @Value("${jwt.cache.maximum-time-to-live}") Duration maximumTimeToLive) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.maximumTimeToLive = maximumTimeToLive;
+        this.digestTimer = meterRegistry.timer(AUTHENTICATION_TIMER, "phase", "digest");
+        this.parseAndVerifyTimer = meterRegistry.timer(AUTHENTICATION_TIMER,
+                "phase", "parse-verify");
+        this.userLoadTimer = meterRegistry.timer(AUTHENTICATION_TIMER, "phase", "user-load");
+        this.hitCounter = meterRegistry.counter(CACHE_COUNTER, "result", "hit");
+        this.missCounter = meterRegistry.counter(CACHE_COUNTER, "result", "miss");
+        this.invalidCounter = meterRegistry.counter(CACHE_COUNTER, "result", "invalid");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    public UserDetails getPrincipal(String token) {
+        String key = digestTimer.record(() -> digest(token));
+        AuthenticatedToken authenticatedToken = cache.getIfPresent(key);
+        if (authenticatedToken != null) {
+            hitCounter.increment();
+            return authenticatedToken.principal();
+        }
+        final long generation = invalidations.get();
+        Optional<Claims> claims = parseAndVerifyTimer.record(()
+                -> jwtUtil.parseAndValidate(token));
+        if (claims.isEmpty()) {
+            invalidCounter.increment();
+            return null;
+        }
+        missCounter.increment();
+        UserDetails userDetails = userLoadTimer.record(()
+                -> userDetailsService.loadUserByUsername(claims.get().getSubject()));
+        authenticatedToken = new AuthenticatedToken(claims.get(), snapshot(userDetails));
+        cache.put(key, authenticatedToken);
+        if (invalidations.get() != generation) {
+            cache.asMap().remove(key, authenticatedToken);
+        }
+        return authenticatedToken.principal();
+    }
+
+    public void evictUser(String email) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            cache.asMap().values().removeIf(authenticatedToken
+                    -> authenticatedToken.principal().getUsername().equals(email));
+        });
+    }
+
+    private UserDetails snapshot(UserDetails userDetails) {
+        if (!(userDetails instanceof User user)) {
+            return userDetails;
+        }
+        User snapshot = new User();
+        snapshot.setId(user.getId());
+        snapshot.setEmail(user.getEmail());
+        snapshot.setFirstName(user.getFirstName());
+        snapshot.setLastName(user.getLastName());
+        snapshot.setShippingAddress(user.getShippingAddress());
+        snapshot.setDeleted(user.isDeleted());
+        snapshot.setRoles(Set.copyOf(user.getRoles()));
+        return snapshot;
+    }
+
+    private long timeToLive(AuthenticatedToken authenticatedToken) {
+        Duration untilExpiration = Duration.between(Instant.now(),
+                authenticatedToken.claims().getExpiration().toInstant());
+        if (untilExpiration.isNegative()) {
+            return 0;
+        }
+        return Math.min(untilExpiration.toNanos(), maximumTimeToLive.toNanos());
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Can't create " + DIGEST_ALGORITHM + " digest", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, AuthenticatedToken> {
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedToken authenticatedToken,
+                                      long currentTime) {
+            return timeToLive(authenticatedToken);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedToken authenticatedToken,
+                                      long currentTime, long currentDuration) {
+            return timeToLive(authenticatedToken);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedToken authenticatedToken,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record AuthenticatedToken(Claims claims, UserDetails principal) {
+    }
+}
@@ -0,0 +1,10 @@
+package mate.academy.bookshop.service;
+
+import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
+
+public interface AsyncOrderService {
+    OrderRequestStatusDto submit(OrderRequestDto requestDto, Long userId, String idempotencyKey);
+
+    OrderRequestStatusDto getStatus(Long userId, String idempotencyKey);
+}
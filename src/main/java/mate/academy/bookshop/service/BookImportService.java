@@ -0,0 +1,9 @@
+package mate.academy.bookshop.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import mate.academy.bookshop.dto.book.BookImportResultDto;
+
+public interface BookImportService {
+    BookImportResultDto importBooks(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,15 @@
+package mate.academy.bookshop.service;
+
+import java.util.List;
+import mate.academy.bookshop.dto.book.BookDto;
+import org.springframework.data.domain.Pageable;
+
+public interface BookSearchService {
+    void index(BookDto bookDto);
+
+    void remove(Long id);
+
+    void removeCategory(Long categoryId);
+
+    List<BookDto> search(String query, Pageable pageable);
+}
@@ -1,6 +1,10 @@
 package mate.academy.bookshop.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import mate.academy.bookshop.dto.CursorSliceDto;
+import mate.academy.bookshop.dto.book.BookCacheStatsDto;
 import mate.academy.bookshop.dto.book.BookDto;
 import mate.academy.bookshop.dto.book.BookSearchParametersDto;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
@@ -11,11 +15,19 @@ public interface BookService {
 
     List<BookDto> findAll(Pageable pageable);
 
+    CursorSliceDto<BookDto> findAllAfter(String after, Pageable pageable);
+
     BookDto findBookById(Long id);
 
+    Long getVersion(Long id);
+
     BookDto update(Long id, CreateBookRequestDto requestDto);
 
     void deleteById(Long id);
 
     List<BookDto> search(BookSearchParametersDto params, Pageable pageable);
+
+    BookCacheStatsDto getCacheStats();
+
+    void exportAll(OutputStream outputStream) throws IOException;
 }
@@ -1,6 +1,7 @@
 package mate.academy.bookshop.service;
 
 import java.util.List;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.category.CategoryRequestDto;
 import mate.academy.bookshop.dto.category.CategoryResponseDto;
@@ -17,5 +18,11 @@ public interface CategoryService {
 
     CategoryResponseDto getById(Long id);
 
+    Long getVersion(Long id);
+
     List<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id, Pageable pageable);
+
+    CursorSliceDto<BookDtoWithoutCategoryIds> getBooksByCategoryIdAfter(Long id,
+                                                                        String after,
+                                                                        Pageable pageable);
 }
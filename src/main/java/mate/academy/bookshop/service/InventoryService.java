@@ -0,0 +1,16 @@
+package mate.academy.bookshop.service;
+
+import java.util.Map;
+import mate.academy.bookshop.dto.book.BookStockDto;
+
+public interface InventoryService {
+    void reserve(Map<Long, Integer> quantities);
+
+    void release(Map<Long, Integer> quantities);
+
+    BookStockDto restock(Long bookId, int quantity);
+
+    BookStockDto getStock(Long bookId);
+
+    void flush();
+}
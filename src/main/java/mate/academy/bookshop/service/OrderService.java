@@ -1,9 +1,11 @@
 package mate.academy.bookshop.service;
 
 import java.util.List;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
 import mate.academy.bookshop.dto.order.UpdateOrderDto;
 import org.springframework.data.domain.Pageable;
 
@@ -17,5 +19,13 @@ public interface OrderService {
 
     OrderItemResponseDto getItemByOrderId(Long orderId, Long itemId);
 
+    Long getVersion(Long orderId);
+
     List<OrderResponseDto> getOrders(Long userId, Pageable pageable);
+
+    CursorSliceDto<OrderResponseDto> getOrdersAfter(Long userId, String after, Pageable pageable);
+
+    List<OrderSummaryDto> getOrderSummaries(Long userId, Pageable pageable);
+
+    List<OrderSummaryDto> getAllOrderSummaries(String status, Pageable pageable);
 }
@@ -0,0 +1,134 @@
+package mate.academy.bookshop.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
+import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.exception.EmptyShoppingCartException;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InsufficientStockException;
+import mate.academy.bookshop.exception.OrderQueueFullException;
+import mate.academy.bookshop.mapper.OrderRequestMapper;
+import mate.academy.bookshop.model.order.OrderRequest;
+import mate.academy.bookshop.model.order.OrderRequestStatus;
+import mate.academy.bookshop.repository.OrderRequestRepository;
+import mate.academy.bookshop.service.AsyncOrderService;
+import mate.academy.bookshop.service.OrderService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class AsyncOrderServiceImpl implements AsyncOrderService {
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final String UNEXPECTED_ERROR = "Order could not be placed";
+    private final OrderService orderService;
+    private final OrderRequestRepository orderRequestRepository;
+    private final OrderRequestMapper orderRequestMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+
+    public AsyncOrderServiceImpl(OrderService orderService,
+                                 OrderRequestRepository orderRequestRepository,
+                                 OrderRequestMapper orderRequestMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier("orderQueueExecutor") TaskExecutor executor) {
+        this.orderService = orderService;
+        this.orderRequestRepository = orderRequestRepository;
+        this.orderRequestMapper = orderRequestMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+    }
+
+    @Override
+    public OrderRequestStatusDto submit(OrderRequestDto requestDto,
+                                        Long userId,
+                                        String idempotencyKey) {
+        Optional<OrderRequest> existing = orderRequestRepository
+                .findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (existing.isPresent()) {
+            return orderRequestMapper.toDto(existing.get());
+        }
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setUserId(userId);
+        orderRequest.setIdempotencyKey(idempotencyKey);
+        orderRequest.setShippingAddress(requestDto.shippingAddress());
+        orderRequest.setStatus(OrderRequestStatus.PENDING);
+        orderRequest.setCreatedAt(LocalDateTime.now());
+        try {
+            orderRequestRepository.saveAndFlush(orderRequest);
+        } catch (DataIntegrityViolationException e) {
+            return orderRequestRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(orderRequestMapper::toDto)
+                    .orElseThrow(() -> e);
+        }
+        try {
+            executor.execute(() -> process(orderRequest.getId()));
+        } catch (TaskRejectedException e) {
+            orderRequestRepository.deleteById(orderRequest.getId());
+            throw new OrderQueueFullException("Order queue is full, retry later", e);
+        }
+        return orderRequestMapper.toDto(orderRequest);
+    }
+
+    @Override
+    public OrderRequestStatusDto getStatus(Long userId, String idempotencyKey) {
+        return orderRequestRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                .map(orderRequestMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "No order request with idempotency key " + idempotencyKey));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        for (Long id : orderRequestRepository.findPendingIds()) {
+            try {
+                executor.execute(() -> process(id));
+            } catch (TaskRejectedException e) {
+                log.warn("Order queue is full, order request {} stays pending", id);
+                return;
+            }
+        }
+    }
+
+    private void process(Long orderRequestId) {
+        OrderRequest orderRequest = orderRequestRepository.findById(orderRequestId)
+                .filter(request -> request.getStatus() == OrderRequestStatus.PENDING)
+                .orElse(null);
+        if (orderRequest == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderResponseDto order = orderService.placeOrder(
+                        new OrderRequestDto(orderRequest.getShippingAddress()),
+                        orderRequest.getUserId());
+                if (orderRequestRepository.markCompleted(orderRequestId, order.id()) == 0) {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (EmptyShoppingCartException | InsufficientStockException
+                 | EntityNotFoundException e) {
+            fail(orderRequestId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Order request {} failed", orderRequestId, e);
+            fail(orderRequestId, UNEXPECTED_ERROR);
+        }
+    }
+
+    private void fail(Long orderRequestId, String error) {
+        String message = error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        transactionTemplate.executeWithoutResult(status
+                -> orderRequestRepository.markFailed(orderRequestId, message));
+    }
+}
@@ -0,0 +1,235 @@
+package mate.academy.bookshop.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookImportErrorDto;
+import mate.academy.bookshop.dto.book.BookImportResultDto;
+import mate.academy.bookshop.dto.book.CreateBookRequestDto;
+import mate.academy.bookshop.mapper.BookMapper;
+import mate.academy.bookshop.mapper.CategoryResolver;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.model.Category;
+import mate.academy.bookshop.repository.CategoryRepository;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.service.BookImportService;
+import mate.academy.bookshop.service.BookSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookMapper bookMapper;
+    private final BookSearchService bookSearchService;
+    private final CategoryMembershipIndex categoryMembershipIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BookImportServiceImpl(BookRepository bookRepository,
+                                 CategoryRepository categoryRepository,
+                                 BookMapper bookMapper,
+                                 BookSearchService bookSearchService,
+                                 CategoryMembershipIndex categoryMembershipIndex,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${book-import.chunk-size}") int chunkSize,
+                                 @Value("${book-import.max-reported-errors}")
+                                 int maxReportedErrors) {
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+        this.bookMapper = bookMapper;
+        this.bookSearchService = bookSearchService;
+        this.categoryMembershipIndex = categoryMembershipIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public BookImportResultDto importBooks(InputStream inputStream) throws IOException {
+        Import bookImport = new Import();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                parse(bookImport, lineNumber, line);
+            }
+            if (bookImport.rows.size() == chunkSize) {
+                writeChunk(bookImport);
+            }
+        }
+        writeChunk(bookImport);
+        return new BookImportResultDto(bookImport.imported, bookImport.failed,
+                bookImport.errors);
+    }
+
+    private void parse(Import bookImport, long lineNumber, String line) {
+        CreateBookRequestDto requestDto;
+        try {
+            requestDto = objectMapper.readValue(line, CreateBookRequestDto.class);
+        } catch (JsonProcessingException e) {
+            bookImport.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            return;
+        }
+        Set<ConstraintViolation<CreateBookRequestDto>> violations =
+                validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            bookImport.fail(lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " "
+                            + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return;
+        }
+        bookImport.rows.add(new Row(lineNumber, requestDto));
+    }
+
+    private void writeChunk(Import bookImport) {
+        if (bookImport.rows.isEmpty()) {
+            return;
+        }
+        resolveCategories(bookImport, bookImport.rows.stream()
+                .map(row -> row.requestDto().getCategories())
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet()));
+        Set<String> existingIsbns = new HashSet<>(bookRepository.findAllIsbnsIn(
+                bookImport.rows.stream()
+                        .map(row -> row.requestDto().getIsbn())
+                        .toList()));
+        List<Row> accepted = new ArrayList<>();
+        List<Book> books = new ArrayList<>();
+        for (Row row : bookImport.rows) {
+            Book book = toBook(bookImport, row, existingIsbns);
+            if (book != null) {
+                accepted.add(row);
+                books.add(book);
+            }
+        }
+        bookImport.rows.clear();
+        save(bookImport, accepted, books);
+    }
+
+    private void resolveCategories(Import bookImport, Set<Long> categoryIds) {
+        categoryIds.removeAll(bookImport.categories.keySet());
+        categoryIds.removeAll(bookImport.unknownCategoryIds);
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        for (Category category : categoryRepository.findAllById(categoryIds)) {
+            bookImport.categories.put(category.getId(), category);
+        }
+        categoryIds.removeAll(bookImport.categories.keySet());
+        bookImport.unknownCategoryIds.addAll(categoryIds);
+    }
+
+    private Book toBook(Import bookImport, Row row, Set<String> existingIsbns) {
+        CreateBookRequestDto requestDto = row.requestDto();
+        if (!existingIsbns.add(requestDto.getIsbn())) {
+            bookImport.fail(row.line(), "Book with isbn " + requestDto.getIsbn()
+                    + " already exists");
+            return null;
+        }
+        Set<Long> categoryIds = requestDto.getCategories() == null
+                ? Set.of()
+                : requestDto.getCategories();
+        List<Long> missingIds = categoryIds.stream()
+                .filter(bookImport.unknownCategoryIds::contains)
+                .toList();
+        if (!missingIds.isEmpty()) {
+            bookImport.fail(row.line(), CategoryResolver.missingCategoriesMessage(missingIds));
+            return null;
+        }
+        Book book = bookMapper.toModelWithoutCategories(requestDto);
+        book.setCategories(categoryIds.stream()
+                .map(bookImport.categories::get)
+                .collect(Collectors.toSet()));
+        return book;
+    }
+
+    private void save(Import bookImport, List<Row> accepted, List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        try {
+            bookRepository.insertAll(books);
+        } catch (DataAccessException e) {
+            saveOneByOne(bookImport, accepted, books);
+            return;
+        }
+        index(bookImport, books);
+    }
+
+    private void saveOneByOne(Import bookImport, List<Row> accepted, List<Book> books) {
+        List<Book> saved = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            try {
+                bookRepository.insertAll(List.of(books.get(i)));
+                saved.add(books.get(i));
+            } catch (DataAccessException e) {
+                bookImport.fail(accepted.get(i).line(), "Could not save book: "
+                        + e.getMostSpecificCause().getMessage());
+            }
+        }
+        if (!saved.isEmpty()) {
+            index(bookImport, saved);
+        }
+    }
+
+    private void index(Import bookImport, List<Book> books) {
+        bookImport.imported += books.size();
+        Map<Long, Set<Long>> categoryIdsByBookId = new HashMap<>();
+        for (Book book : books) {
+            BookDto bookDto = bookMapper.toDto(book);
+            bookSearchService.index(bookDto);
+            categoryIdsByBookId.put(book.getId(), book.getCategories().stream()
+                    .map(Category::getId)
+                    .collect(Collectors.toSet()));
+        }
+        categoryMembershipIndex.addAll(categoryIdsByBookId);
+    }
+
+    private record Row(long line, CreateBookRequestDto requestDto) {
+    }
+
+    private class Import {
+        private final List<Row> rows = new ArrayList<>();
+        private final Map<Long, Category> categories = new HashMap<>();
+        private final Set<Long> unknownCategoryIds = new HashSet<>();
+        private final List<BookImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BookImportErrorDto(line, message));
+            }
+        }
+    }
+}
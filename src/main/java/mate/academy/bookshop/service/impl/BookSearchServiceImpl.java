@@ -0,0 +1,225 @@
+package mate.academy.bookshop.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.repository.book.BookIndexRow;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.service.BookSearchService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BookSearchServiceImpl implements BookSearchService {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private final Map<Long, BookDto> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BookRepository bookRepository;
+    private List<Runnable> pendingWrites;
+    private long totalLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<BookDto> books = loadBooks();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentLengths.clear();
+            documents.clear();
+            totalLength = 0;
+            books.forEach(this::addDocument);
+            pendingWrites.forEach(Runnable::run);
+            pendingWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(BookDto bookDto) {
+        BookDto document = copy(bookDto);
+        write(() -> {
+            removeDocument(document.getId());
+            addDocument(document);
+        });
+    }
+
+    @Override
+    public void remove(Long id) {
+        write(() -> removeDocument(id));
+    }
+
+    @Override
+    public void removeCategory(Long categoryId) {
+        write(() -> documents.replaceAll((id, bookDto) -> {
+            if (bookDto.getCategoryIds() == null
+                    || !bookDto.getCategoryIds().contains(categoryId)) {
+                return bookDto;
+            }
+            BookDto updated = copy(bookDto);
+            updated.getCategoryIds().remove(categoryId);
+            return updated;
+        }));
+    }
+
+    @Override
+    public List<BookDto> search(String query, Pageable pageable) {
+        List<String> terms = tokenize(query).stream()
+                .distinct()
+                .toList();
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            double averageLength = (double) totalLength / documents.size();
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - termPostings.size() + 0.5)
+                        / (termPostings.size() + 0.5));
+                termPostings.forEach((id, frequency) -> {
+                    double normalizedLength = documentLengths.get(id) / averageLength;
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * normalizedLength));
+                    scores.merge(id, score, Double::sum);
+                });
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                    .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                    .map(entry -> copy(documents.get(entry.getKey())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<BookDto> loadBooks() {
+        List<BookDto> books = new ArrayList<>();
+        try (Stream<BookIndexRow> rows = bookRepository.streamAllForIndex()) {
+            BookDto current = null;
+            Iterator<BookIndexRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookIndexRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.id())) {
+                    current = toBookDto(row);
+                    books.add(current);
+                }
+                if (row.categoryId() != null) {
+                    current.getCategoryIds().add(row.categoryId());
+                }
+            }
+        }
+        return books;
+    }
+
+    private BookDto toBookDto(BookIndexRow row) {
+        BookDto bookDto = new BookDto();
+        bookDto.setId(row.id());
+        bookDto.setTitle(row.title());
+        bookDto.setAuthor(row.author());
+        bookDto.setPrice(row.price());
+        bookDto.setDescription(row.description());
+        bookDto.setCoverImage(row.coverImage());
+        bookDto.setCategoryIds(new HashSet<>());
+        return bookDto;
+    }
+
+    private void write(Runnable write) {
+        lock.writeLock().lock();
+        try {
+            write.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(BookDto bookDto) {
+        List<String> tokens = tokenize(bookDto.getTitle(),
+                bookDto.getAuthor(),
+                bookDto.getDescription());
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new HashMap<>())
+                    .merge(bookDto.getId(), 1, Integer::sum);
+        }
+        documents.put(bookDto.getId(), bookDto);
+        documentLengths.put(bookDto.getId(), tokens.size());
+        totalLength += tokens.size();
+    }
+
+    private void removeDocument(Long id) {
+        BookDto bookDto = documents.remove(id);
+        if (bookDto == null) {
+            return;
+        }
+        List<String> tokens = tokenize(bookDto.getTitle(),
+                bookDto.getAuthor(),
+                bookDto.getDescription());
+        for (String token : tokens) {
+            Map<Long, Integer> termPostings = postings.get(token);
+            if (termPostings != null && termPostings.remove(id) != null
+                    && termPostings.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+        totalLength -= documentLengths.remove(id);
+    }
+
+    private BookDto copy(BookDto bookDto) {
+        BookDto copy = new BookDto();
+        copy.setId(bookDto.getId());
+        copy.setTitle(bookDto.getTitle());
+        copy.setAuthor(bookDto.getAuthor());
+        copy.setPrice(bookDto.getPrice());
+        copy.setDescription(bookDto.getDescription());
+        copy.setCoverImage(bookDto.getCoverImage());
+        copy.setCategoryIds(bookDto.getCategoryIds() == null
+                ? null
+                : new HashSet<>(bookDto.getCategoryIds()));
+        return copy;
+    }
+
+    private List<String> tokenize(String... fields) {
+        return Arrays.stream(fields)
+                .filter(field -> field != null && !field.isBlank())
+                .flatMap(field -> TOKEN_SEPARATOR.splitAsStream(field.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
@@ -1,62 +1,108 @@
 package mate.academy.bookshop.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.cache.BookDtoCache;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.CursorSliceDto;
+import mate.academy.bookshop.dto.book.BookCacheStatsDto;
 import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookExportDto;
 import mate.academy.bookshop.dto.book.BookSearchParametersDto;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
 import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InvalidSearchParametersException;
 import mate.academy.bookshop.mapper.BookMapper;
 import mate.academy.bookshop.model.Book;
-import mate.academy.bookshop.model.Category;
-import mate.academy.bookshop.repository.CategoryRepository;
+import mate.academy.bookshop.repository.book.BookExportRow;
 import mate.academy.bookshop.repository.book.BookRepository;
 import mate.academy.bookshop.repository.book.BookSpecificationBuilder;
+import mate.academy.bookshop.service.BookSearchService;
 import mate.academy.bookshop.service.BookService;
+import mate.academy.bookshop.util.AfterCommit;
+import mate.academy.bookshop.util.Cursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
     private final BookSpecificationBuilder specificationBuilder;
-    private final CategoryRepository categoryRepository;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final BookSearchService bookSearchService;
+    private final BookDtoCache bookDtoCache;
+    private final CategoryMembershipIndex categoryMembershipIndex;
+    private final ObjectMapper objectMapper;
 
     @Override
+    @Transactional
     public BookDto save(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
-        Set<Category> categories = new HashSet<>();
-        for (Long categoryId : requestDto.getCategories()) {
-            Category category = categoryRepository.findById(categoryId)
-                    .orElseThrow(()
-                            -> new EntityNotFoundException("There is no category with id "
-                            + categoryId));
-            categories.add(category);
-        }
-        book.setCategories(categories);
         Book savedBook = bookRepository.save(book);
-        return bookMapper.toDto(savedBook);
+        BookDto bookDto = bookMapper.toDto(savedBook);
+        AfterCommit.run(() -> bookSearchService.index(bookDto));
+        AfterCommit.run(() -> categoryMembershipIndex.add(bookDto.getId(),
+                bookDto.getCategoryIds()));
+        return bookDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookDto> findAll(Pageable pageable) {
         return bookRepository.findAll(pageable).stream()
                 .map(bookMapper::toDto)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<BookDto> findAllAfter(String after, Pageable pageable) {
+        long afterId = after == null ? 0L : Cursor.decode(after).id();
+        Slice<Long> ids = bookRepository.findIdsAfter(afterId,
+                PageRequest.of(0, pageable.getPageSize()));
+        if (ids.isEmpty()) {
+            return new CursorSliceDto<>(List.of(), null);
+        }
+        List<BookDto> books = bookRepository.findAllByIdIn(ids.getContent()).stream()
+                .sorted(Comparator.comparing(Book::getId))
+                .map(bookMapper::toDto)
+                .toList();
+        Long lastId = ids.getContent().get(ids.getNumberOfElements() - 1);
+        return new CursorSliceDto<>(books,
+                ids.hasNext() ? Cursor.of(lastId, lastId).encode() : null);
+    }
+
     @Override
     public BookDto findBookById(Long id) {
-        return bookMapper.toDto(bookRepository.findById(id).orElseThrow(()
-                -> new EntityNotFoundException("Can't find book with id " + id)));
+        return bookDtoCache.get(id, bookId -> bookMapper.toDto(bookRepository.findById(bookId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find book with id " + bookId))));
     }
 
     @Override
+    public Long getVersion(Long id) {
+        return bookRepository.findVersionById(id).orElseThrow(()
+                -> new EntityNotFoundException("Can't find book with id " + id));
+    }
+
+    @Override
+    @Transactional
     public BookDto update(Long id, CreateBookRequestDto requestDto) {
         Book book = bookRepository.findById(id).orElseThrow(()
                 -> new EntityNotFoundException("Can't find book with id " + id));
@@ -68,23 +114,92 @@ public class BookServiceImpl implements BookService {
         book.setPrice(requestDto.getPrice());
         book.setTitle(requestDto.getTitle());
 
-        return bookMapper.toDto(bookRepository.save(book));
+        BookDto bookDto = bookMapper.toDto(bookRepository.save(book));
+        AfterCommit.run(() -> bookDtoCache.evict(id));
+        AfterCommit.run(() -> bookSearchService.index(bookDto));
+        return bookDto;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         if (!bookRepository.existsById(id)) {
             throw new EntityNotFoundException("Can't find book with id " + id);
         }
         bookRepository.deleteById(id);
+        AfterCommit.run(() -> bookDtoCache.evict(id));
+        AfterCommit.run(() -> bookSearchService.remove(id));
+        AfterCommit.run(() -> categoryMembershipIndex.removeBook(id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookDto> search(BookSearchParametersDto params, Pageable pageable) {
+        if (StringUtils.hasText(params.getQuery())) {
+            if (hasFilters(params)) {
+                throw new InvalidSearchParametersException("Full-text query can't be combined "
+                        + "with titles, authors, priceRange or isbns filters");
+            }
+            return bookSearchService.search(params.getQuery(), pageable);
+        }
         Specification<Book> bookSpecification = specificationBuilder.build(params);
         return bookRepository.findAll(bookSpecification, pageable)
                 .stream()
                 .map(bookMapper::toDto)
                 .toList();
     }
+
+    @Override
+    public BookCacheStatsDto getCacheStats() {
+        CacheStats stats = bookDtoCache.stats();
+        return new BookCacheStatsDto(bookDtoCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream outputStream) throws IOException {
+        try (Stream<BookExportRow> rows = bookRepository.streamAllForExport();
+                JsonGenerator generator = objectMapper.getFactory()
+                        .createGenerator(outputStream)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null)) {
+            BookExportDto current = null;
+            Iterator<BookExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookExportRow row = iterator.next();
+                if (current == null || !current.id().equals(row.id())) {
+                    writeLine(generator, current);
+                    current = toExportDto(row);
+                }
+                if (row.categoryId() != null) {
+                    current.categories().add(row.categoryId());
+                }
+            }
+            writeLine(generator, current);
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, BookExportDto bookExportDto)
+            throws IOException {
+        if (bookExportDto != null) {
+            generator.writeObject(bookExportDto);
+            generator.writeRaw('\n');
+        }
+    }
+
+    private BookExportDto toExportDto(BookExportRow row) {
+        return new BookExportDto(row.id(), row.title(), row.author(), row.isbn(), row.price(),
+                row.description(), row.coverImage(), row.stock(), new HashSet<>());
+    }
+
+    private boolean hasFilters(BookSearchParametersDto params) {
+        return !ObjectUtils.isEmpty(params.getTitles())
+                || !ObjectUtils.isEmpty(params.getAuthors())
+                || !ObjectUtils.isEmpty(params.getPriceRange())
+                || !ObjectUtils.isEmpty(params.getIsbns());
+    }
 }
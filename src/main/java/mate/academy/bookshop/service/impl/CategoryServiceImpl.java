@@ -2,6 +2,9 @@ package mate.academy.bookshop.service.impl;
 
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.cache.BookDtoCache;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.category.CategoryRequestDto;
 import mate.academy.bookshop.dto.category.CategoryResponseDto;
@@ -11,9 +14,16 @@ import mate.academy.bookshop.mapper.CategoryMapper;
 import mate.academy.bookshop.model.Category;
 import mate.academy.bookshop.repository.CategoryRepository;
 import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.BookRow;
+import mate.academy.bookshop.service.BookSearchService;
 import mate.academy.bookshop.service.CategoryService;
+import mate.academy.bookshop.util.AfterCommit;
+import mate.academy.bookshop.util.Cursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,8 +32,12 @@ public class CategoryServiceImpl implements CategoryService {
     private final BookRepository bookRepository;
     private final CategoryMapper categoryMapper;
     private final BookMapper bookMapper;
+    private final BookDtoCache bookDtoCache;
+    private final CategoryMembershipIndex categoryMembershipIndex;
+    private final BookSearchService bookSearchService;
 
     @Override
+    @Transactional
     public CategoryResponseDto save(CategoryRequestDto requestDto) {
         Category category = categoryMapper.toEntity(requestDto);
         Category savedCategory = categoryRepository.save(category);
@@ -31,6 +45,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public CategoryResponseDto update(Long id, CategoryRequestDto requestDto) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(()
@@ -43,15 +58,21 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         if (categoryRepository.existsById(id)) {
             categoryRepository.deleteById(id);
+            bookRepository.incrementVersionByCategoryId(id);
+            AfterCommit.run(() -> bookDtoCache.evictByCategoryId(id));
+            AfterCommit.run(() -> categoryMembershipIndex.removeCategory(id));
+            AfterCommit.run(() -> bookSearchService.removeCategory(id));
         } else {
             throw new EntityNotFoundException("Category not found with id: " + id);
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryResponseDto> getAll(Pageable pageable) {
         return categoryRepository.findAll(pageable).stream()
                 .map(categoryMapper::toDto)
@@ -59,14 +80,71 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponseDto getById(Long id) {
         return categoryMapper.toDto(categoryRepository.findById(id).orElseThrow(()
                 -> new EntityNotFoundException("Category not found with id: " + id)));
     }
 
     @Override
+    public Long getVersion(Long id) {
+        return categoryRepository.findVersionById(id).orElseThrow(()
+                -> new EntityNotFoundException("Category not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id, Pageable pageable) {
-        return bookRepository.findByCategoryId(id, pageable).stream()
+        if (!categoryMembershipIndex.isReady() || pageable.isUnpaged()
+                || pageable.getSort().isSorted()) {
+            return bookRepository.findByCategoryId(id, pageable).stream()
+                    .map(bookMapper::toDtoWithoutCategories)
+                    .toList();
+        }
+        return findBooksByIds(categoryMembershipIndex.findBookIds(id, pageable.getOffset(),
+                pageable.getPageSize()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<BookDtoWithoutCategoryIds> getBooksByCategoryIdAfter(Long id,
+                                                                               String after,
+                                                                               Pageable pageable) {
+        long afterId = after == null ? 0L : Cursor.decode(after).id();
+        if (categoryMembershipIndex.isReady()) {
+            return getIndexedBooksAfter(id, afterId, pageable.getPageSize());
+        }
+        Slice<BookRow> books = bookRepository.findByCategoryIdAfter(id, afterId,
+                PageRequest.of(0, pageable.getPageSize()));
+        List<BookDtoWithoutCategoryIds> content = books.stream()
+                .map(bookMapper::toDtoWithoutCategories)
+                .toList();
+        if (!books.hasNext()) {
+            return new CursorSliceDto<>(content, null);
+        }
+        Long lastId = books.getContent().get(books.getNumberOfElements() - 1).id();
+        return new CursorSliceDto<>(content, Cursor.of(lastId, lastId).encode());
+    }
+
+    private CursorSliceDto<BookDtoWithoutCategoryIds> getIndexedBooksAfter(Long id,
+                                                                         long afterId,
+                                                                         int size) {
+        List<Long> ids = categoryMembershipIndex.findBookIdsAfter(id, afterId, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<BookDtoWithoutCategoryIds> content = findBooksByIds(pageIds);
+        if (!hasNext) {
+            return new CursorSliceDto<>(content, null);
+        }
+        Long lastId = pageIds.get(pageIds.size() - 1);
+        return new CursorSliceDto<>(content, Cursor.of(lastId, lastId).encode());
+    }
+
+    private List<BookDtoWithoutCategoryIds> findBooksByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findRowsByIdIn(ids).stream()
                 .map(bookMapper::toDtoWithoutCategories)
                 .toList();
     }
@@ -0,0 +1,160 @@
+package mate.academy.bookshop.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.book.BookStockDto;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InsufficientStockException;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.BookStock;
+import mate.academy.bookshop.service.InventoryService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+    private static final long RETIRED = Long.MIN_VALUE;
+    private final Map<Long, StockSlot> slots = new ConcurrentHashMap<>();
+    private final BookRepository bookRepository;
+
+    @Override
+    public void reserve(Map<Long, Integer> quantities) {
+        loadSlots(quantities.keySet());
+        Map<Long, Integer> reserved = new HashMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (!adjust(entry.getKey(), -entry.getValue())) {
+                    throw new InsufficientStockException("Not enough stock for book with id "
+                            + entry.getKey());
+                }
+                reserved.put(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                release(quantities);
+                            }
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantities) {
+        quantities.forEach((bookId, quantity) -> adjust(bookId, quantity));
+    }
+
+    @Override
+    public BookStockDto restock(Long bookId, int quantity) {
+        adjust(bookId, quantity);
+        return getStock(bookId);
+    }
+
+    @Override
+    public BookStockDto getStock(Long bookId) {
+        long available = getSlot(bookId).available.get();
+        while (available == RETIRED) {
+            available = getSlot(bookId).available.get();
+        }
+        return new BookStockDto(bookId, available);
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        slots.forEach((bookId, slot) -> {
+            long delta = slot.available.get() - slot.flushed;
+            if (delta != 0) {
+                deltas.put(bookId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        bookRepository.addStock(deltas);
+        deltas.forEach((bookId, delta) -> slots.get(bookId).flushed += delta);
+    }
+
+    public synchronized void refresh() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long bookId : List.copyOf(slots.keySet())) {
+            StockSlot slot = slots.remove(bookId);
+            long delta = slot.available.getAndSet(RETIRED) - slot.flushed;
+            if (delta != 0) {
+                deltas.put(bookId, delta);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            bookRepository.addStock(deltas);
+        }
+    }
+
+    private boolean adjust(Long bookId, long delta) {
+        while (true) {
+            AtomicLong available = getSlot(bookId).available;
+            long current = available.get();
+            while (current != RETIRED) {
+                if (current + delta < 0) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current + delta)) {
+                    return true;
+                }
+                current = available.get();
+            }
+        }
+    }
+
+    private StockSlot getSlot(Long bookId) {
+        StockSlot slot = slots.get(bookId);
+        if (slot != null) {
+            return slot;
+        }
+        loadSlots(List.of(bookId));
+        slot = slots.get(bookId);
+        if (slot == null) {
+            throw new EntityNotFoundException("No book with id " + bookId);
+        }
+        return slot;
+    }
+
+    private synchronized void loadSlots(Collection<Long> bookIds) {
+        List<Long> missing = bookIds.stream()
+                .filter(bookId -> !slots.containsKey(bookId))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (BookStock bookStock : bookRepository.findStocksByIdIn(missing)) {
+            slots.put(bookStock.bookId(), new StockSlot(bookStock.stock()));
+        }
+    }
+
+    private static final class StockSlot {
+        private final AtomicLong available;
+        private long flushed;
+
+        private StockSlot(long stock) {
+            this.available = new AtomicLong(stock);
+            this.flushed = stock;
+        }
+    }
+}
@@ -1,29 +1,49 @@
 package mate.academy.bookshop.service.impl;
 
-import jakarta.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
 import mate.academy.bookshop.dto.order.UpdateOrderDto;
 import mate.academy.bookshop.exception.EmptyShoppingCartException;
 import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InvalidCursorException;
 import mate.academy.bookshop.exception.InvalidStatusException;
 import mate.academy.bookshop.mapper.OrderItemMapper;
 import mate.academy.bookshop.mapper.OrderMapper;
-import mate.academy.bookshop.model.ShoppingCart;
+import mate.academy.bookshop.mapper.OrderSummaryMapper;
 import mate.academy.bookshop.model.order.Order;
 import mate.academy.bookshop.model.order.OrderItem;
+import mate.academy.bookshop.model.order.OrderSummary;
 import mate.academy.bookshop.model.order.Status;
 import mate.academy.bookshop.repository.CartItemRepository;
+import mate.academy.bookshop.repository.CartLine;
 import mate.academy.bookshop.repository.OrderItemRepository;
+import mate.academy.bookshop.repository.OrderItemRow;
 import mate.academy.bookshop.repository.OrderRepository;
+import mate.academy.bookshop.repository.OrderRow;
+import mate.academy.bookshop.repository.OrderSummaryRepository;
 import mate.academy.bookshop.repository.ShoppingCartRepository;
+import mate.academy.bookshop.repository.UserRepository;
+import mate.academy.bookshop.service.InventoryService;
 import mate.academy.bookshop.service.OrderService;
+import mate.academy.bookshop.util.Cursor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -32,24 +52,40 @@ public class OrderServiceImpl implements OrderService {
     private final CartItemRepository cartItemRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
     private final OrderMapper orderMapper;
+    private final OrderSummaryMapper orderSummaryMapper;
     private final OrderItemMapper orderItemMapper;
+    private final InventoryService inventoryService;
+    private final UserRepository userRepository;
 
     @Override
     @Transactional
     public OrderResponseDto placeOrder(OrderRequestDto requestDto, Long userId) {
-        ShoppingCart userShoppingCart = shoppingCartRepository.findByUserId(userId)
+        Long shoppingCartId = shoppingCartRepository.lockIdByUserId(userId)
                 .orElseThrow(()
                         -> new EntityNotFoundException("No shopping cart for user id " + userId));
-        if (userShoppingCart.getCartItems().isEmpty()) {
+        List<CartLine> lines = cartItemRepository.findOrderableLines(shoppingCartId);
+        if (lines.isEmpty()) {
             throw new EmptyShoppingCartException("Shopping cart is empty for user id " + userId);
         }
+        inventoryService.reserve(lines.stream()
+                .collect(Collectors.toMap(CartLine::bookId, CartLine::quantity, Integer::sum)));
 
-        Order order = orderMapper.fromShoppingCart(userShoppingCart, requestDto);
-        Order savedOrder = orderRepository.save(order);
+        Order order = new Order();
+        order.setUser(userRepository.getReferenceById(userId));
+        order.setStatus(Status.PENDING);
+        order.setOrderDate(LocalDateTime.now());
+        order.setShippingAddress(requestDto.shippingAddress());
+        order.setTotal(BigDecimal.ZERO);
+        Long orderId = orderRepository.saveAndFlush(order).getId();
 
-        cartItemRepository.deleteAllByShoppingCartId(userShoppingCart.getId());
-        return orderMapper.toDto(savedOrder);
+        long firstItemId = orderItemRepository.reserveIds(lines.size());
+        orderItemRepository.insertFromShoppingCart(orderId, shoppingCartId, firstItemId);
+        orderRepository.updateTotal(orderId);
+        orderSummaryRepository.insertForOrder(orderId);
+        cartItemRepository.deleteAllByShoppingCartId(shoppingCartId);
+        return orderMapper.toDto(getOrder(orderId));
     }
 
     @Override
@@ -59,29 +95,80 @@ public class OrderServiceImpl implements OrderService {
         Order order = getOrder(orderId);
         order.setStatus(status);
         Order savedOrder = orderRepository.save(order);
+        orderSummaryRepository.updateStatus(orderId, status);
         return orderMapper.toDto(savedOrder);
     }
 
     @Override
-    public List<OrderResponseDto> getOrders(Long userId, Pageable pageable) {
-        List<Order> orders = orderRepository.findAllByUserId(userId, pageable);
-        return orders.stream()
-                .map(orderMapper::toDto)
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> getOrderSummaries(Long userId, Pageable pageable) {
+        return orderSummaryRepository.findByUserId(userId, unsorted(pageable)).stream()
+                .map(orderSummaryMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> getAllOrderSummaries(String status, Pageable pageable) {
+        List<OrderSummary> summaries = status == null
+                ? orderSummaryRepository.findLatest(unsorted(pageable))
+                : orderSummaryRepository.findLatestByStatus(validateStatus(status),
+                        unsorted(pageable));
+        return summaries.stream()
+                .map(orderSummaryMapper::toDto)
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<OrderResponseDto> getOrders(Long userId, Pageable pageable) {
+        List<Long> ids = orderRepository.findOrderIdsByUserId(userId, pageable);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findOrdersByIds(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<OrderResponseDto> getOrdersAfter(Long userId,
+                                                           String after,
+                                                           Pageable pageable) {
+        Pageable limit = PageRequest.of(0, pageable.getPageSize());
+        Slice<Long> ids;
+        if (after == null) {
+            ids = orderRepository.findIdsByUserId(userId, limit);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            ids = orderRepository.findIdsByUserIdBefore(userId, parseOrderDate(cursor),
+                    cursor.id(), limit);
+        }
+        if (ids.isEmpty()) {
+            return new CursorSliceDto<>(List.of(), null);
+        }
+        List<OrderResponseDto> content = findOrdersByIds(ids.getContent());
+        if (!ids.hasNext()) {
+            return new CursorSliceDto<>(content, null);
+        }
+        OrderResponseDto last = content.get(content.size() - 1);
+        return new CursorSliceDto<>(content, Cursor.of(last.orderDate(), last.id()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<OrderItemResponseDto> getItems(Long orderId, Pageable pageable) {
         if (!orderRepository.existsById(orderId)) {
             throw new EntityNotFoundException("No order with id " + orderId);
         }
-        Page<OrderItem> orderItemsPage = orderItemRepository.findByOrderId(orderId, pageable);
+        Page<OrderItem> orderItemsPage = orderItemRepository
+                .findByOrderIdOrderByIdAsc(orderId, pageable);
         return orderItemsPage.getContent().stream()
                 .map(orderItemMapper::toDto)
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderItemResponseDto getItemByOrderId(Long orderId, Long itemId) {
         Order order = getOrder(orderId);
         return order.getOrderItems().stream()
@@ -93,6 +180,30 @@ public class OrderServiceImpl implements OrderService {
                         .format("No item with id %d in order with id %d", itemId, orderId)));
     }
 
+    @Override
+    public Long getVersion(Long orderId) {
+        return orderRepository.findVersionById(orderId).orElseThrow(()
+                -> new EntityNotFoundException("No order with id " + orderId));
+    }
+
+    private List<OrderResponseDto> findOrdersByIds(List<Long> ids) {
+        Map<Long, OrderRow> orders = orderRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(OrderRow::id, Function.identity()));
+        Map<Long, Set<OrderItemResponseDto>> items = orderItemRepository
+                .findRowsByOrderIdIn(ids).stream()
+                .collect(Collectors.groupingBy(OrderItemRow::orderId,
+                        Collectors.mapping(orderItemMapper::toDto, Collectors.toSet())));
+        return ids.stream()
+                .map(orders::get)
+                .map(order -> orderMapper.toDto(order,
+                        items.getOrDefault(order.id(), Set.of())))
+                .toList();
+    }
+
+    private Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
     private Status validateStatus(String status) {
         try {
             return Status.valueOf(status.toUpperCase());
@@ -101,6 +212,14 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    private LocalDateTime parseOrderDate(Cursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.key());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor.encode(), e);
+        }
+    }
+
     private Order getOrder(Long orderId) {
         return orderRepository.findById(orderId).orElseThrow(()
                 -> new EntityNotFoundException("No order with id " + orderId));
@@ -1,70 +1,85 @@
 package mate.academy.bookshop.service.impl;
 
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import java.sql.SQLException;
 import mate.academy.bookshop.dto.shoppingcart.CartItemRequestDto;
 import mate.academy.bookshop.dto.shoppingcart.CartResponseDto;
 import mate.academy.bookshop.dto.shoppingcart.UpdateCartItemRequestDto;
+import mate.academy.bookshop.exception.CartUpdateConflictException;
 import mate.academy.bookshop.exception.EntityNotFoundException;
-import mate.academy.bookshop.mapper.CartItemMapper;
 import mate.academy.bookshop.mapper.ShoppingCartMapper;
-import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.CartItem;
 import mate.academy.bookshop.model.ShoppingCart;
 import mate.academy.bookshop.repository.CartItemRepository;
 import mate.academy.bookshop.repository.ShoppingCartRepository;
 import mate.academy.bookshop.repository.book.BookRepository;
 import mate.academy.bookshop.service.ShoppingCartService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 public class ShoppingCartServiceImpl implements ShoppingCartService {
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
     private final ShoppingCartRepository shoppingCartRepository;
     private final ShoppingCartMapper shoppingCartMapper;
     private final BookRepository bookRepository;
-    private final CartItemMapper cartItemMapper;
     private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxUpdateAttempts;
+
+    public ShoppingCartServiceImpl(ShoppingCartRepository shoppingCartRepository,
+                                   ShoppingCartMapper shoppingCartMapper,
+                                   BookRepository bookRepository,
+                                   CartItemRepository cartItemRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${shopping-cart.max-update-attempts}")
+                                   int maxUpdateAttempts) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.shoppingCartMapper = shoppingCartMapper;
+        this.bookRepository = bookRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxUpdateAttempts = maxUpdateAttempts;
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public CartResponseDto getShoppingCart(Long userId) {
         ShoppingCart shoppingCart = getShoppingCartByUserId(userId);
         return shoppingCartMapper.toDto(shoppingCart);
     }
 
     @Override
-    @Transactional
     public CartResponseDto addBookToShoppingCart(CartItemRequestDto requestDto, Long userId) {
-        ShoppingCart shoppingCart = getShoppingCartByUserId(userId);
-
-        CartItem cartItem = cartItemMapper.toEntity(requestDto);
-        cartItem.setShoppingCart(shoppingCart);
-        addBookToCartItem(cartItem);
-
-        CartItem savedCartItem = cartItemRepository.save(cartItem);
-        shoppingCart.getCartItems().add(savedCartItem);
-
-        ShoppingCart savedShoppingCart = shoppingCartRepository.save(shoppingCart);
-        return shoppingCartMapper.toDto(savedShoppingCart);
+        Long shoppingCartId = getShoppingCartIdByUserId(userId);
+        retryOnConflict(() -> addOrIncrementCartItem(shoppingCartId, requestDto));
+        return getShoppingCart(userId);
     }
 
     @Override
-    @Transactional
     public CartResponseDto updateBookQuantityByCartItemId(Long cartItemId,
                                                           Long userId,
                                                           UpdateCartItemRequestDto requestDto) {
-        ShoppingCart shoppingCart = getShoppingCartByUserId(userId);
-        CartItem cartItem = shoppingCart.getCartItems().stream()
-                .filter(item -> item.getId().equals(cartItemId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("No cart item with id "
-                        + cartItemId));
-        cartItem.setQuantity(requestDto.quantity());
-        cartItemRepository.save(cartItem);
-        return shoppingCartMapper.toDto(shoppingCart);
+        Long shoppingCartId = getShoppingCartIdByUserId(userId);
+        retryOnConflict(() -> {
+            CartItem cartItem = cartItemRepository
+                    .findByIdAndShoppingCartId(cartItemId, shoppingCartId)
+                    .orElseThrow(() -> new EntityNotFoundException("No cart item with id "
+                            + cartItemId));
+            cartItem.setQuantity(requestDto.quantity());
+            cartItemRepository.saveAndFlush(cartItem);
+        });
+        return getShoppingCart(userId);
     }
 
     @Override
+    @Transactional
     public void deleteBookFromShoppingCart(Long cartItemId) {
         if (!cartItemRepository.existsById(cartItemId)) {
             throw new EntityNotFoundException("No cart item with id " + cartItemId);
@@ -72,15 +87,56 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         cartItemRepository.deleteById(cartItemId);
     }
 
+    private void addOrIncrementCartItem(Long shoppingCartId, CartItemRequestDto requestDto) {
+        if (!bookRepository.existsById(requestDto.bookId())) {
+            throw new EntityNotFoundException("No book with id " + requestDto.bookId());
+        }
+        if (cartItemRepository.incrementQuantity(shoppingCartId, requestDto.bookId(),
+                requestDto.quantity()) > 0) {
+            return;
+        }
+        CartItem cartItem = new CartItem();
+        cartItem.setShoppingCart(shoppingCartRepository.getReferenceById(shoppingCartId));
+        cartItem.setBook(bookRepository.getReferenceById(requestDto.bookId()));
+        cartItem.setQuantity(requestDto.quantity());
+        cartItemRepository.saveAndFlush(cartItem);
+    }
+
+    private void retryOnConflict(Runnable update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> update.run());
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException violation
+                        && !isDuplicateKey(violation)) {
+                    throw violation;
+                }
+                if (attempt >= maxUpdateAttempts) {
+                    throw new CartUpdateConflictException("Shopping cart was modified "
+                            + "concurrently, gave up after " + attempt + " attempts", e);
+                }
+            }
+        }
+    }
+
+    private boolean isDuplicateKey(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && (sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                || UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState()));
+    }
+
+    private Long getShoppingCartIdByUserId(Long userId) {
+        return shoppingCartRepository.findIdByUserId(userId).orElseThrow(()
+                -> new EntityNotFoundException("No shopping cart for user id " + userId));
+    }
+
     private ShoppingCart getShoppingCartByUserId(Long userId) {
         ShoppingCart shoppingCart = shoppingCartRepository.findByUserId(userId).orElseThrow(()
                 -> new EntityNotFoundException("No shopping cart for user id " + userId));
         return shoppingCart;
     }
-
-    private void addBookToCartItem(CartItem cartItem) {
-        Book book = bookRepository.findById(cartItem.getBook().getId()).orElseThrow(()
-                -> new EntityNotFoundException("No book with id " + cartItem.getBook().getId()));
-        cartItem.setBook(book);
-    }
 }
@@ -0,0 +1,30 @@
+package mate.academy.bookshop.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import mate.academy.bookshop.exception.InvalidCursorException;
+
+public record Cursor(String key, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static Cursor of(Object key, Long id) {
+        return new Cursor(String.valueOf(key), id);
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new Cursor(value.substring(0, separatorIndex),
+                    Long.valueOf(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,25 +1,30 @@
 package mate.academy.bookshop.util;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Optional;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.expiration}")
-    private Long expiration;
-    private SecretKey secret;
+    private final long expiration;
+    private final SecretKey secret;
+    private final JwtParser jwtParser;
 
-    public JwtUtil(@Value("${jwt.secret}") String secretString) {
+    public JwtUtil(@Value("${jwt.secret}") String secretString,
+                   @Value("${jwt.expiration}") long expiration) {
+        this.expiration = expiration;
         this.secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secret)
+                .build();
     }
 
     public String generateToken(String username) {
@@ -31,28 +36,14 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean isValid(String token) {
+    public Optional<Claims> parseAndValidate(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secret)
-                    .build()
-                    .parseSignedClaims(token);
-            return !claimsJws.getPayload().getExpiration().before(new Date());
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return claims.getExpiration().before(new Date())
+                    ? Optional.empty()
+                    : Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
-
-    public String getUsername(String token) {
-        return getClaimsFromToken(token, Claims::getSubject);
-    }
-
-    private <T> T getClaimsFromToken(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
-    }
 }
@@ -0,0 +1,87 @@
+package mate.academy.bookshop.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+import mate.academy.bookshop.dto.book.BookDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookDtoCacheTest {
+
+    private BookDtoCache bookDtoCache;
+
+    @BeforeEach
+    void setUp() {
+        bookDtoCache = new BookDtoCache(1_000_000, Duration.ofMinutes(10));
+    }
+
+    @DisplayName("Loader is called only on a cache miss")
+    @Test
+    public void get_CachedId_ReturnsCachedBookWithoutLoading() {
+        BookDto bookDto = createBookDto(1L, Set.of(1L));
+        bookDtoCache.get(1L, id -> bookDto);
+
+        BookDto response = bookDtoCache.get(1L, id -> createBookDto(id, Set.of()));
+
+        assertSame(bookDto, response);
+        assertEquals(1, bookDtoCache.stats().hitCount());
+        assertEquals(1, bookDtoCache.stats().missCount());
+    }
+
+    @DisplayName("Evicted book is loaded again on the next lookup")
+    @Test
+    public void evict_CachedId_ReloadsBook() {
+        bookDtoCache.get(1L, id -> createBookDto(id, Set.of(1L)));
+        BookDto reloaded = createBookDto(1L, Set.of(2L));
+
+        bookDtoCache.evict(1L);
+        BookDto response = bookDtoCache.get(1L, id -> reloaded);
+
+        assertSame(reloaded, response);
+    }
+
+    @DisplayName("Evicting by category removes only books of that category")
+    @Test
+    public void evictByCategoryId_MixedCategories_RemovesMatchingBooks() {
+        bookDtoCache.get(1L, id -> createBookDto(id, Set.of(1L)));
+        bookDtoCache.get(2L, id -> createBookDto(id, Set.of(1L, 2L)));
+        BookDto other = createBookDto(3L, Set.of(2L));
+        bookDtoCache.get(3L, id -> other);
+
+        bookDtoCache.evictByCategoryId(1L);
+
+        assertEquals(1, bookDtoCache.estimatedSize());
+        assertSame(other, bookDtoCache.get(3L, id -> createBookDto(id, Set.of())));
+    }
+
+    @DisplayName("Book loaded before an eviction is not cached after it")
+    @Test
+    public void get_EvictedWhileLoading_DoesNotCacheStaleBook() {
+        BookDto stale = createBookDto(1L, Set.of(1L));
+        BookDto reloaded = createBookDto(1L, Set.of(2L));
+
+        BookDto loaded = bookDtoCache.get(1L, id -> {
+            bookDtoCache.evictByCategoryId(1L);
+            return stale;
+        });
+        BookDto response = bookDtoCache.get(1L, id -> reloaded);
+
+        assertSame(stale, loaded);
+        assertSame(reloaded, response);
+    }
+
+    private BookDto createBookDto(Long id, Set<Long> categoryIds) {
+        BookDto bookDto = new BookDto();
+        bookDto.setId(id);
+        bookDto.setTitle("Title " + id);
+        bookDto.setAuthor("Author");
+        bookDto.setPrice(BigDecimal.TEN);
+        bookDto.setCategoryIds(categoryIds);
+        return bookDto;
+    }
+}
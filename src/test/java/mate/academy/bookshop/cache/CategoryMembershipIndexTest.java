@@ -0,0 +1,96 @@
+package mate.academy.bookshop.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.CategoryMembership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryMembershipIndexTest {
+
+    private static final Long FICTION = 1L;
+    private static final Long SCIENCE = 2L;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private CategoryMembershipIndex categoryMembershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamCategoryMemberships()).thenReturn(Stream.of(
+                new CategoryMembership(FICTION, 1L),
+                new CategoryMembership(FICTION, 3L),
+                new CategoryMembership(FICTION, 5L),
+                new CategoryMembership(SCIENCE, 3L)));
+        categoryMembershipIndex.rebuild();
+    }
+
+    @DisplayName("Rebuild loads book ids per category in id order")
+    @Test
+    public void rebuild_Memberships_IndexesBookIdsPerCategory() {
+        assertTrue(categoryMembershipIndex.isReady());
+        assertEquals(List.of(1L, 3L, 5L), categoryMembershipIndex.findBookIds(FICTION, 0, 10));
+        assertEquals(List.of(3L), categoryMembershipIndex.findBookIds(SCIENCE, 0, 10));
+        assertEquals(List.of(), categoryMembershipIndex.findBookIds(99L, 0, 10));
+    }
+
+    @DisplayName("Offset and keyset slices start at the right position")
+    @Test
+    public void findBookIds_OffsetAndCursor_ReturnsSlices() {
+        assertEquals(List.of(3L), categoryMembershipIndex.findBookIds(FICTION, 1, 1));
+        assertEquals(List.of(), categoryMembershipIndex.findBookIds(FICTION, 5, 1));
+        assertEquals(List.of(3L, 5L), categoryMembershipIndex.findBookIdsAfter(FICTION, 1L, 10));
+        assertEquals(List.of(5L), categoryMembershipIndex.findBookIdsAfter(FICTION, 4L, 10));
+    }
+
+    @DisplayName("Added books are merged in order and removed books disappear")
+    @Test
+    public void addAllAndRemove_BookChanges_UpdateIndex() {
+        categoryMembershipIndex.addAll(Map.of(4L, Set.of(FICTION, SCIENCE), 2L, Set.of(FICTION)));
+        categoryMembershipIndex.add(3L, Set.of(FICTION));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                categoryMembershipIndex.findBookIds(FICTION, 0, 10));
+
+        categoryMembershipIndex.removeBook(3L);
+        categoryMembershipIndex.removeCategory(FICTION);
+
+        assertEquals(List.of(), categoryMembershipIndex.findBookIds(FICTION, 0, 10));
+        assertEquals(List.of(4L), categoryMembershipIndex.findBookIds(SCIENCE, 0, 10));
+    }
+
+    @DisplayName("Writes made while the index is rebuilt are kept in the rebuilt index")
+    @Test
+    public void rebuild_ConcurrentWrites_AppliesWritesToRebuiltIndex() {
+        when(bookRepository.streamCategoryMemberships()).thenReturn(Stream.of(
+                new CategoryMembership(FICTION, 1L),
+                new CategoryMembership(FICTION, 3L),
+                new CategoryMembership(SCIENCE, 3L))
+                .peek(membership -> {
+                    if (membership.categoryId().equals(SCIENCE)) {
+                        categoryMembershipIndex.add(7L, Set.of(FICTION));
+                        categoryMembershipIndex.removeBook(1L);
+                    }
+                }));
+
+        categoryMembershipIndex.rebuild();
+
+        assertEquals(List.of(3L, 7L), categoryMembershipIndex.findBookIds(FICTION, 0, 10));
+        assertEquals(List.of(3L), categoryMembershipIndex.findBookIds(SCIENCE, 0, 10));
+    }
+}
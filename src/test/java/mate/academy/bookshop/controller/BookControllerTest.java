@@ -23,8 +23,16 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookExportDto;
+import mate.academy.bookshop.dto.book.BookImportErrorDto;
+import mate.academy.bookshop.dto.book.BookImportResultDto;
+import mate.academy.bookshop.dto.book.BookStockDto;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
+import mate.academy.bookshop.dto.book.RestockRequestDto;
+import mate.academy.bookshop.metrics.RequestStatisticsFilter;
+import mate.academy.bookshop.service.impl.InventoryServiceImpl;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -33,11 +41,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.shaded.org.apache.commons.lang3.builder.EqualsBuilder;
@@ -55,8 +65,13 @@ class BookControllerTest {
     private static final String BOOK_ID_PATH = "/books/{id}";
     private static final String BOOKS_PATH = "/books";
     private static final String BOOKS_SEARCH_PATH = "/books/search";
+    private static final String BOOKS_SCROLL_PATH = "/books/scroll";
+    private static final String BOOKS_EXPORT_PATH = "/books/export";
+    private static final String BOOKS_IMPORT_PATH = "/books/import";
+    private static final String BOOK_STOCK_PATH = "/books/{id}/stock";
     private static final String PARAM_PAGE = "page";
     private static final String PARAM_SIZE = "size";
+    private static final String PARAM_AFTER = "after";
     private static final String PARAM_AUTHORS = "authors";
     private static final String USER_ROLE = "user";
     private static final String ADMIN_ROLE = "admin";
@@ -70,11 +85,15 @@ class BookControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext,
                           @Autowired DataSource dataSource) throws SQLException {
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(applicationContext)
+                .addFilters(applicationContext.getBean(RequestStatisticsFilter.class))
                 .apply(springSecurity())
                 .build();
         try (Connection connection = dataSource.getConnection()) {
@@ -128,6 +147,76 @@ class BookControllerTest {
         compareExpectedListToActualList(expected, actual);
     }
 
+    @DisplayName("Export streams every book as newline-delimited JSON")
+    @WithMockUser(username = ADMIN_ROLE, roles = {ROLE_ADMIN})
+    @Test
+    void export_AllBooks_ReturnsOneJsonLinePerBook() throws Exception {
+        List<BookDto> expected = getExpectedBooks();
+
+        List<BookExportDto> actual = exportBooks();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTitle(), actual.get(i).title());
+            assertEquals(String.format("ISBN-%05d", i + 1), actual.get(i).isbn());
+            assertEquals(expected.get(i).getCategoryIds(), actual.get(i).categories());
+        }
+    }
+
+    @DisplayName("Export by a regular user is forbidden")
+    @WithMockUser(username = USER_ROLE)
+    @Test
+    void export_RegularUser_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get(BOOKS_EXPORT_PATH))
+                .andExpect(status().isForbidden());
+    }
+
+    @DisplayName("Exported books are accepted by import and rejected only as duplicates")
+    @WithMockUser(username = ADMIN_ROLE, roles = {ROLE_ADMIN})
+    @Test
+    void importBooks_ExportedBooks_ReportsOnlyDuplicates() throws Exception {
+        MvcResult export = mockMvc.perform(get(BOOKS_EXPORT_PATH))
+                .andExpect(status().isOk())
+                .andReturn();
+        int exported = exportBooks().size();
+
+        MvcResult result = mockMvc.perform(post(BOOKS_IMPORT_PATH)
+                        .content(export.getResponse().getContentAsString())
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        BookImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportResultDto.class);
+
+        assertEquals(0, actual.imported());
+        assertEquals(exported, actual.failed());
+        assertTrue(actual.errors().stream()
+                .allMatch(error -> error.message().endsWith(" already exists")));
+    }
+
+    @DisplayName("Import saves valid lines and reports invalid ones")
+    @WithMockUser(username = ADMIN_ROLE, roles = {ROLE_ADMIN})
+    @Test
+    void importBooks_MixedLines_ImportsValidBooks() throws Exception {
+        CreateBookRequestDto newBook = getRequestDto();
+        CreateBookRequestDto duplicate = getRequestDto();
+        duplicate.setIsbn("ISBN-00001");
+        String content = objectMapper.writeValueAsString(newBook) + "\n"
+                + objectMapper.writeValueAsString(duplicate) + "\n";
+
+        MvcResult result = mockMvc.perform(post(BOOKS_IMPORT_PATH)
+                        .content(content)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        BookImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportResultDto.class);
+
+        assertEquals(new BookImportResultDto(1, 1, List.of(new BookImportErrorDto(2,
+                "Book with isbn ISBN-00001 already exists"))), actual);
+        assertEquals(getExpectedBooks().size() + 1, exportBooks().size());
+    }
+
     @DisplayName("Get all books with custom pageable params")
     @WithMockUser(username = USER_ROLE)
     @Test
@@ -151,6 +240,22 @@ class BookControllerTest {
         compareExpectedListToActualList(expected, actual);
     }
 
+    @DisplayName("Scroll books with cursor returned by previous slice")
+    @WithMockUser(username = USER_ROLE)
+    @Test
+    void scroll_CursorFromFirstSlice_ReturnsNextSliceOfBooks() throws Exception {
+        List<BookDto> bookDtos = getExpectedBooks();
+        List<BookDto> expected = List.of(bookDtos.get(2), bookDtos.get(3));
+
+        CursorSliceDto<BookDto> first = scrollBooks(null);
+        CursorSliceDto<BookDto> actual = scrollBooks(first.next());
+
+        assertEquals(2, first.content().size());
+        assertNotNull(actual.next());
+        assertEquals(expected.size(), actual.content().size());
+        compareExpectedListToActualList(expected, actual.content());
+    }
+
     @DisplayName("Get book by ID when book exists")
     @WithMockUser(username = USER_ROLE)
     @Test
@@ -172,6 +277,25 @@ class BookControllerTest {
                 actual, "id"));
     }
 
+    @DisplayName("Get book by ID with a current ETag returns not modified")
+    @WithMockUser(username = USER_ROLE)
+    @Test
+    void getById_MatchingETag_ReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get(BOOK_ID_PATH, 4L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = mockMvc.perform(get(BOOK_ID_PATH, 4L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals("\"0\"", etag);
+        assertEquals("", result.getResponse().getContentAsString());
+    }
+
     @DisplayName("Get book by ID with invalid ID")
     @WithMockUser(username = USER_ROLE)
     @Test
@@ -253,6 +377,28 @@ class BookControllerTest {
         assertTrue(EqualsBuilder.reflectionEquals(expected, actual, "id"));
     }
 
+    @DisplayName("Restock book adds units to its available stock")
+    @WithMockUser(username = ADMIN_ROLE, roles = {ROLE_ADMIN})
+    @Test
+    void restock_ValidRequest_ReturnsIncreasedStock() throws Exception {
+        inventoryService.refresh();
+        Long id = 2L;
+        String jsonRequest = objectMapper.writeValueAsString(new RestockRequestDto(5));
+
+        MvcResult result = mockMvc.perform(post(BOOK_STOCK_PATH, id)
+                        .content(jsonRequest)
+                        .contentType(MEDIA_TYPE_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        BookStockDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                BookStockDto.class);
+        inventoryService.refresh();
+
+        assertEquals(new BookStockDto(id, 105), actual);
+        assertEquals(105, inventoryService.getStock(id).available());
+        inventoryService.refresh();
+    }
+
     @DisplayName("Create new book with invalid request")
     @WithMockUser(username = ADMIN_ROLE, roles = {ROLE_ADMIN})
     @Test
@@ -343,6 +489,16 @@ class BookControllerTest {
         assertEquals(expected, actual);
     }
 
+    private List<BookExportDto> exportBooks() throws Exception {
+        MvcResult result = mockMvc.perform(get(BOOKS_EXPORT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        return objectMapper.readerFor(BookExportDto.class)
+                .<BookExportDto>readValues(result.getResponse().getContentAsString())
+                .readAll();
+    }
+
     private List<BookDto> getExpectedBooks() {
         return IntStream.rangeClosed(1, 20)
                 .mapToObj(i -> {
@@ -382,6 +538,21 @@ class BookControllerTest {
         return updatedBook;
     }
 
+    private CursorSliceDto<BookDto> scrollBooks(String after) throws Exception {
+        MockHttpServletRequestBuilder request = get(BOOKS_SCROLL_PATH)
+                .param(PARAM_SIZE, "2")
+                .contentType(MEDIA_TYPE_JSON);
+        if (after != null) {
+            request.param(PARAM_AFTER, after);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory()
+                        .constructParametricType(CursorSliceDto.class, BookDto.class));
+    }
+
     private void compareExpectedListToActualList(List<?> expected, List<?> actual) {
         for (int i = 0; i < expected.size(); i++) {
             assertTrue(EqualsBuilder
@@ -21,9 +21,11 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
 import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.category.CategoryRequestDto;
 import mate.academy.bookshop.dto.category.CategoryResponseDto;
+import mate.academy.bookshop.metrics.RequestStatisticsFilter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -66,6 +69,7 @@ class CategoryControllerTest {
                           @Autowired DataSource dataSource) {
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(applicationContext)
+                .addFilters(applicationContext.getBean(RequestStatisticsFilter.class))
                 .apply(springSecurity())
                 .build();
         teardown(dataSource);
@@ -81,11 +85,13 @@ class CategoryControllerTest {
     }
 
     @BeforeEach
-    void setup(@Autowired DataSource dataSource) throws SQLException {
+    void setup(@Autowired DataSource dataSource,
+               @Autowired CategoryMembershipIndex categoryMembershipIndex) throws SQLException {
         try (Connection connection = dataSource.getConnection()) {
             connection.setAutoCommit(true);
             ScriptUtils.executeSqlScript(connection, new ClassPathResource(ADD_CATEGORIES_SCRIPT));
         }
+        categoryMembershipIndex.rebuild();
     }
 
     @AfterEach
@@ -133,6 +139,25 @@ class CategoryControllerTest {
         EqualsBuilder.reflectionEquals(expected, actual, "id");
     }
 
+    @DisplayName("Get category by ID with an outdated ETag returns the category")
+    @WithMockUser(username = "user")
+    @Test
+    void getById_OutdatedETag_ReturnsCategory() throws Exception {
+        String etag = mockMvc.perform(get(CATEGORY_ID_URL, TEST_CATEGORY_ID))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(CATEGORY_ID_URL, TEST_CATEGORY_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(CATEGORY_ID_URL, TEST_CATEGORY_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"41\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @DisplayName("Get books by category ID when category exists")
     @WithMockUser(username = "user")
     @Test
@@ -16,17 +16,24 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
 import mate.academy.bookshop.dto.order.UpdateOrderDto;
+import mate.academy.bookshop.metrics.RequestStatisticsFilter;
 import mate.academy.bookshop.model.User;
+import mate.academy.bookshop.model.order.OrderRequestStatus;
 import mate.academy.bookshop.model.order.Status;
 import mate.academy.bookshop.repository.UserRepository;
+import mate.academy.bookshop.service.OrderService;
+import mate.academy.bookshop.service.impl.InventoryServiceImpl;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,6 +43,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -69,6 +78,8 @@ class OrderControllerTest {
             + ".academy.bookshop.controller.OrderController.updateOrder(java."
             + "lang.Long,mate.academy.bookshop.dto.order.UpdateOrderDto)";
     public static final long NON_EXISTING_ID = 999L;
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENCY_KEY = "checkout-1";
 
     private static MockMvc mockMvc;
 
@@ -81,6 +92,12 @@ class OrderControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
     private User user;
 
     @BeforeAll
@@ -111,6 +128,7 @@ class OrderControllerTest {
     public void setUp() {
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(applicationContext)
+                .addFilters(applicationContext.getBean(RequestStatisticsFilter.class))
                 .apply(springSecurity())
                 .build();
 
@@ -121,8 +139,11 @@ class OrderControllerTest {
     @SneakyThrows
     @AfterEach
     public void clearUp(@Autowired DataSource dataSource) {
+        inventoryService.refresh();
         try (Connection connection = dataSource.getConnection()) {
             connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/books/reset-stock.sql"));
             ScriptUtils.executeSqlScript(connection,
                     new ClassPathResource("database/shopping-cart/delete-all-cart-items.sql"));
             ScriptUtils.executeSqlScript(connection,
@@ -148,11 +169,114 @@ class OrderControllerTest {
         OrderResponseDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
                 OrderResponseDto.class);
 
-        assertTrue(EqualsBuilder.reflectionEquals(expected, actual, "orderDate", "orderItems"));
+        assertNotNull(actual.id());
+        assertTrue(EqualsBuilder.reflectionEquals(expected, actual,
+                "id", "orderDate", "orderItems"));
         assertEquals(expected.orderItems().size(), actual.orderItems().size());
         compareOrderItems(expected.orderItems(), actual.orderItems());
     }
 
+    @Test
+    @DisplayName("Place order without enough stock for one of the books")
+    @Sql(scripts = "classpath:database/shopping-cart/create-cart-items.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(statements = "UPDATE books SET stock = 1 WHERE id = 3",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void placeOrder_NotEnoughStock_ReturnsConflictAndKeepsStock() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(new OrderRequestDto(ADDRESS));
+
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isConflict())
+                .andReturn();
+
+        assertEquals("Not enough stock for book with id 3",
+                result.getResolvedException().getMessage());
+        assertEquals(100, inventoryService.getStock(1L).available());
+        assertEquals(1, inventoryService.getStock(3L).available());
+    }
+
+    @Test
+    @DisplayName("Place order asynchronously and repeat it with the same idempotency key")
+    @Sql(scripts = "classpath:database/shopping-cart/create-cart-items.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void placeOrderAsync_RepeatedIdempotencyKey_PlacesOrderOnce() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(new OrderRequestDto(ADDRESS));
+        MvcResult accepted = mockMvc.perform(post("/orders/async")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user))
+                        .header(IDEMPOTENCY_KEY_HEADER, IDEMPOTENCY_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        OrderRequestStatusDto completed = awaitOrderRequest(location);
+
+        assertTrue(location.endsWith("/orders/requests/" + IDEMPOTENCY_KEY));
+        assertEquals(OrderRequestStatus.COMPLETED.name(), completed.status());
+        assertNotNull(completed.orderId());
+        MvcResult repeated = mockMvc.perform(post("/orders/async")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user))
+                        .header(IDEMPOTENCY_KEY_HEADER, IDEMPOTENCY_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk())
+                .andReturn();
+        OrderRequestStatusDto actual = objectMapper.readValue(
+                repeated.getResponse().getContentAsString(), OrderRequestStatusDto.class);
+
+        assertEquals(completed, actual);
+        assertEquals(1, orderService.getOrders(user.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    @DisplayName("Place and update order keeps its summary in sync")
+    @Sql(scripts = "classpath:database/shopping-cart/create-cart-items.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void placeOrder_ValidParams_MaintainsOrderSummary() throws Exception {
+        OrderResponseDto order = orderService.placeOrder(new OrderRequestDto(ADDRESS),
+                user.getId());
+        MvcResult result = mockMvc.perform(get("/orders/summaries")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user)))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<OrderSummaryDto> summaries = objectMapper.readValue(result
+                        .getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class,
+                        OrderSummaryDto.class));
+
+        assertEquals(1, summaries.size());
+        OrderSummaryDto summary = summaries.get(0);
+        assertEquals(order.id(), summary.orderId());
+        assertEquals(Status.PENDING.name(), summary.status());
+        assertEquals(0, order.total().compareTo(summary.total()));
+        assertEquals(3, summary.itemCount());
+        assertNotNull(summary.firstBookTitle());
+
+        User admin = userRepository.findByEmail("admin@example.com")
+                .orElseThrow();
+        mockMvc.perform(patch("/orders/{id}", order.id())
+                        .with(SecurityMockMvcRequestPostProcessors.user(admin))
+                        .content(objectMapper.writeValueAsString(
+                                new UpdateOrderDto(Status.DELIVERED.name())))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        MvcResult delivered = mockMvc.perform(get("/orders/summaries/all")
+                        .param("status", Status.DELIVERED.name())
+                        .with(SecurityMockMvcRequestPostProcessors.user(admin)))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<OrderSummaryDto> actual = objectMapper.readValue(delivered
+                        .getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class,
+                        OrderSummaryDto.class));
+
+        assertEquals(List.of(order.id()), actual.stream().map(OrderSummaryDto::orderId).toList());
+    }
+
     @Test
     @DisplayName("Place order with unauthenticated user")
     public void placeOrder_UnAuthenticatedUser_ThrowsForbiddenException() throws Exception {
@@ -190,7 +314,9 @@ class OrderControllerTest {
     @Sql(scripts = "classpath:database/orders/create-orders.sql",
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
     public void getOrders_AuthenticatedUser_ReturnsListOfUserOrders() throws Exception {
-        List<OrderResponseDto> expected = retrieveOrdersFormSqlScript();
+        List<OrderResponseDto> expected = retrieveOrdersFormSqlScript().stream()
+                .sorted(Comparator.comparing(OrderResponseDto::id).reversed())
+                .toList();
         MvcResult result = mockMvc.perform(get("/orders")
                         .with(SecurityMockMvcRequestPostProcessors.user(user)))
                 .andExpect(status().isOk())
@@ -276,6 +402,7 @@ class OrderControllerTest {
         List<OrderItemResponseDto> expected = orderResponseDtos.stream()
                 .filter(o -> o.id().equals(orderId))
                 .flatMap(o -> o.orderItems().stream())
+                .sorted(Comparator.comparing(OrderItemResponseDto::id))
                 .toList();
 
         MvcResult result = mockMvc.perform(get("/orders/{orderId}/items", orderId)
@@ -291,6 +418,24 @@ class OrderControllerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Get order items with a current ETag returns not modified")
+    @Sql(scripts = "classpath:database/orders/create-orders.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void getOrderItems_MatchingETag_ReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/orders/{orderId}/items", 1L)
+                        .with(SecurityMockMvcRequestPostProcessors.user(user)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/orders/{orderId}/items", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(SecurityMockMvcRequestPostProcessors.user(user)))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("Get order items with non-existing order ID")
     public void getOrderItems_NonExistingOrderId_ReturnsListOfOrderItems() throws Exception {
@@ -373,6 +518,22 @@ class OrderControllerTest {
         assertEquals(expected, actual);
     }
 
+    private OrderRequestStatusDto awaitOrderRequest(String location) throws Exception {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            MvcResult result = mockMvc.perform(get(location)
+                            .with(SecurityMockMvcRequestPostProcessors.user(user)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            OrderRequestStatusDto orderRequest = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), OrderRequestStatusDto.class);
+            if (!OrderRequestStatus.PENDING.name().equals(orderRequest.status())) {
+                return orderRequest;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Order request is still pending: " + location);
+    }
+
     private void setAuthentication(User user) {
         UserDetails userDetails = withUsername(user.getEmail())
                 .password(user.getPassword())
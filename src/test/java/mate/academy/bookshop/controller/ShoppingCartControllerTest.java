@@ -14,7 +14,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import mate.academy.bookshop.BookshopApplication;
@@ -22,6 +27,7 @@ import mate.academy.bookshop.dto.shoppingcart.CartItemDto;
 import mate.academy.bookshop.dto.shoppingcart.CartItemRequestDto;
 import mate.academy.bookshop.dto.shoppingcart.CartResponseDto;
 import mate.academy.bookshop.dto.shoppingcart.UpdateCartItemRequestDto;
+import mate.academy.bookshop.metrics.RequestStatisticsFilter;
 import mate.academy.bookshop.model.User;
 import mate.academy.bookshop.repository.UserRepository;
 import mate.academy.bookshop.service.ShoppingCartService;
@@ -110,6 +116,7 @@ class ShoppingCartControllerTest {
     public void setUp() {
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(applicationContext)
+                .addFilters(applicationContext.getBean(RequestStatisticsFilter.class))
                 .apply(springSecurity())
                 .build();
 
@@ -163,12 +170,7 @@ class ShoppingCartControllerTest {
             throws Exception {
         CartItemRequestDto requestDto = new CartItemRequestDto(VALID_BOOK_ID, 10);
         String jsonRequest = objectMapper.writeValueAsString(requestDto);
-        CartItemDto cartItemDto = new CartItemDto(VALID_BOOK_ID, requestDto.bookId(),
-                BOOK_TITLE_1, requestDto.quantity());
-        CartResponseDto expected = new CartResponseDto(
-                shoppingCartService.getShoppingCart(user.getId()).id(),
-                user.getId(),
-                Set.of(cartItemDto));
+        Long shoppingCartId = shoppingCartService.getShoppingCart(user.getId()).id();
 
         MvcResult result = mockMvc.perform(post("/cart")
                         .with(SecurityMockMvcRequestPostProcessors.user(user))
@@ -181,9 +183,67 @@ class ShoppingCartControllerTest {
                 CartResponseDto.class);
 
         assertNotNull(actual);
+        assertEquals(1, actual.cartItems().size());
+        CartItemDto cartItemDto = new CartItemDto(actual.cartItems().iterator().next().id(),
+                requestDto.bookId(), BOOK_TITLE_1, requestDto.quantity());
+        CartResponseDto expected = new CartResponseDto(shoppingCartId, user.getId(),
+                Set.of(cartItemDto));
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Add the same book twice accumulates quantity in one cart item")
+    public void addBookToShoppingCart_BookAlreadyInCart_IncrementsQuantity() throws Exception {
+        CartItemRequestDto requestDto = new CartItemRequestDto(VALID_BOOK_ID, 2);
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+        mockMvc.perform(post("/cart")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(post("/cart")
+                        .with(SecurityMockMvcRequestPostProcessors.user(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isCreated())
+                .andReturn();
+        CartResponseDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                CartResponseDto.class);
+
+        assertEquals(1, actual.cartItems().size());
+        assertEquals(4, actual.cartItems().iterator().next().quantity());
+    }
+
+    @Test
+    @DisplayName("Concurrent adds of the same book keep the total quantity")
+    public void addBookToShoppingCart_ConcurrentWriters_KeepsTotalQuantity() throws Exception {
+        int writers = 8;
+        int addsPerWriter = 10;
+        CartItemRequestDto requestDto = new CartItemRequestDto(VALID_BOOK_ID, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < addsPerWriter; j++) {
+                        shoppingCartService.addBookToShoppingCart(requestDto, user.getId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        CartResponseDto actual = shoppingCartService.getShoppingCart(user.getId());
+
+        assertEquals(1, actual.cartItems().size());
+        assertEquals(writers * addsPerWriter, actual.cartItems().iterator().next().quantity());
+    }
+
     @Test
     @DisplayName("Add book to shopping cart without request DTO")
     public void addBookToShoppingCart_WithoutRequestDto_ThrowsException() throws Exception {
@@ -0,0 +1,95 @@
+package mate.academy.bookshop.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import mate.academy.bookshop.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final Duration MAX_LAG = Duration.ofMinutes(1);
+    private static final long MAX_TRACKED_USERS = 100;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(
+                new ReadYourWritesTracker(MAX_LAG, MAX_TRACKED_USERS));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("Read-only transaction is routed to the replica")
+    @Test
+    public void determineCurrentLookupKey_ReadOnlyTransaction_ReturnsReplica() {
+        authenticate(USER_ID);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(DataSourceRole.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @DisplayName("Read-write transaction is routed to the primary")
+    @Test
+    public void determineCurrentLookupKey_ReadWriteTransaction_ReturnsPrimary() {
+        authenticate(USER_ID);
+
+        assertEquals(DataSourceRole.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @DisplayName("Reads after a committed write stick to the primary for the same user only")
+    @Test
+    public void determineCurrentLookupKey_ReadAfterCommittedWrite_ReturnsPrimaryForWriter() {
+        authenticate(USER_ID);
+        routingDataSource.determineCurrentLookupKey();
+        completeTransaction(true);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(DataSourceRole.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        authenticate(OTHER_USER_ID);
+        assertEquals(DataSourceRole.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @DisplayName("Rolled back writes do not pin reads to the primary")
+    @Test
+    public void determineCurrentLookupKey_ReadAfterRolledBackWrite_ReturnsReplica() {
+        authenticate(USER_ID);
+        routingDataSource.determineCurrentLookupKey();
+        completeTransaction(false);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(DataSourceRole.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
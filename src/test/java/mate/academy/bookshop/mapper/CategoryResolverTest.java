@@ -0,0 +1,65 @@
+package mate.academy.bookshop.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.model.Category;
+import mate.academy.bookshop.repository.CategoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryResolverTest {
+
+    private static final Set<Long> CATEGORY_IDS = Set.of(1L, 2L, 3L);
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryResolver categoryResolver;
+
+    @DisplayName("All categories are resolved with a single query")
+    @Test
+    public void resolve_ExistingIds_ReturnsCategories() {
+        List<Category> categories = List.of(new Category(1L), new Category(2L),
+                new Category(3L));
+        when(categoryRepository.findAllById(CATEGORY_IDS)).thenReturn(categories);
+
+        Set<Category> actual = categoryResolver.resolve(CATEGORY_IDS);
+
+        assertEquals(Set.copyOf(categories), actual);
+        verify(categoryRepository, times(1)).findAllById(CATEGORY_IDS);
+    }
+
+    @DisplayName("Missing categories are all listed in the exception")
+    @Test
+    public void resolve_MissingIds_ThrowsEntityNotFoundException() {
+        when(categoryRepository.findAllById(CATEGORY_IDS)).thenReturn(List.of(new Category(2L)));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> categoryResolver.resolve(CATEGORY_IDS));
+
+        assertEquals("There are no categories with ids 1, 3", exception.getMessage());
+    }
+
+    @DisplayName("No ids resolve to an empty set without querying")
+    @Test
+    public void resolve_NoIds_ReturnsEmptySet() {
+        assertTrue(categoryResolver.resolve(null).isEmpty());
+        assertTrue(categoryResolver.resolve(Set.of()).isEmpty());
+        verifyNoInteractions(categoryRepository);
+    }
+}
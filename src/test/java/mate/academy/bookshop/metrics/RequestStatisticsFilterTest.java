@@ -0,0 +1,118 @@
+package mate.academy.bookshop.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import mate.academy.bookshop.exception.StatementBudgetExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RequestStatisticsFilterTest {
+
+    private static final String URI_PATTERN = "/books/{id}";
+    private static final String SELECT_BOOK = "select * from books where id=?";
+    private static final String SELECT_CATEGORY = "select * from categories where id=?";
+    private static final int MAX_STATEMENTS = 5;
+    private static final int MAX_REPEATED_STATEMENTS = 2;
+
+    private MeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/books/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI_PATTERN);
+    }
+
+    @DisplayName("Statements and entity loads are recorded per request")
+    @Test
+    public void doFilter_RequestWithQueries_RecordsCounts() throws Exception {
+        RequestStatisticsFilter filter = createFilter(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> {
+                    RequestStatistics.statementPrepared(SELECT_BOOK);
+                    RequestStatistics.statementPrepared(SELECT_CATEGORY);
+                    RequestStatistics.entityLoaded();
+                });
+
+        DistributionSummary statements = meterRegistry.get("bookshop.hibernate.statements")
+                .tag("uri", URI_PATTERN)
+                .summary();
+        DistributionSummary entityLoads = meterRegistry.get("bookshop.hibernate.entity.loads")
+                .tag("uri", URI_PATTERN)
+                .summary();
+        assertEquals(2, statements.totalAmount());
+        assertEquals(1, entityLoads.totalAmount());
+        assertEquals(2, request.getAttribute(RequestStatisticsFilter.STATEMENT_COUNT_ATTRIBUTE));
+    }
+
+    @DisplayName("Statements outside a request are not counted")
+    @Test
+    public void statementPrepared_OutsideRequest_IsIgnored() throws Exception {
+        RequestStatistics.statementPrepared(SELECT_BOOK);
+        RequestStatisticsFilter filter = createFilter(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> { });
+
+        assertEquals(0, meterRegistry.get("bookshop.hibernate.statements")
+                .summary()
+                .totalAmount());
+    }
+
+    @DisplayName("Repeating the same statement beyond the budget fails the request")
+    @Test
+    public void doFilter_RepeatedStatement_ThrowsException() {
+        RequestStatisticsFilter filter = createFilter(true);
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            for (int i = 0; i <= MAX_REPEATED_STATEMENTS; i++) {
+                RequestStatistics.statementPrepared(SELECT_CATEGORY);
+            }
+        };
+
+        StatementBudgetExceededException exception = assertThrows(
+                StatementBudgetExceededException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+
+        assertEquals("GET /books/{id} executed 3 statements (budget 5), "
+                + "most repeated 3 times (budget 2): " + SELECT_CATEGORY, exception.getMessage());
+        assertEquals(1, meterRegistry.get("bookshop.hibernate.budget.exceeded")
+                .tag("reason", "repeated-statement")
+                .counter()
+                .count());
+    }
+
+    @DisplayName("Exceeded budget is only counted when failing is disabled")
+    @Test
+    public void doFilter_TooManyStatementsWithoutFailing_CountsViolation() {
+        RequestStatisticsFilter filter = createFilter(false);
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            for (int i = 0; i <= MAX_STATEMENTS; i++) {
+                RequestStatistics.statementPrepared(SELECT_BOOK + i);
+            }
+        };
+
+        assertDoesNotThrow(() -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+
+        assertEquals(1, meterRegistry.get("bookshop.hibernate.budget.exceeded")
+                .tag("reason", "statement-count")
+                .counter()
+                .count());
+    }
+
+    private RequestStatisticsFilter createFilter(boolean failOnExceeded) {
+        return new RequestStatisticsFilter(meterRegistry, MAX_STATEMENTS,
+                MAX_REPEATED_STATEMENTS, failOnExceeded);
+    }
+}
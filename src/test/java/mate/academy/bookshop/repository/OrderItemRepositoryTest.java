@@ -11,7 +11,10 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -23,14 +26,20 @@ class OrderItemRepositoryTest {
 
     private static final int ORDER_ITEM_QUANTITY = 2;
 
+    private static final String FIND_NEXT_VALUE = "SELECT next_value FROM id_generators "
+            + "WHERE name = 'order_items'";
+
     @Autowired
     private OrderItemRepository orderItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @DisplayName("Find order items by order id")
     @Test
-    void findByOrderId_OrderItemsExist_ReturnsPageOfOrderItems() {
+    void findByOrderIdOrderByIdAsc_OrderItemsExist_ReturnsPageOfOrderItems() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<OrderItem> orderItemsPage = orderItemRepository.findByOrderId(1L, pageable);
+        Page<OrderItem> orderItemsPage = orderItemRepository
+                .findByOrderIdOrderByIdAsc(1L, pageable);
 
         assertEquals(1, orderItemsPage.getTotalElements());
         OrderItem fetchedOrderItem = orderItemsPage.getContent().get(0);
@@ -39,4 +48,19 @@ class OrderItemRepositoryTest {
         assertEquals(1L, fetchedOrderItem.getBook().getId());
         assertEquals(1L, fetchedOrderItem.getOrder().getId());
     }
+
+    @DisplayName("Reserve ids commits whole blocks without overlapping earlier reservations")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void reserveIds_ConsecutiveReservations_ReturnsDisjointBlocks() {
+        long nextValue = jdbcTemplate.queryForObject(FIND_NEXT_VALUE, Long.class);
+
+        long first = orderItemRepository.reserveIds(3);
+        long second = orderItemRepository.reserveIds(OrderItem.ID_ALLOCATION_SIZE + 1);
+
+        assertEquals(nextValue - OrderItem.ID_ALLOCATION_SIZE + 1, first);
+        assertEquals(first + OrderItem.ID_ALLOCATION_SIZE, second);
+        assertEquals(nextValue + 3L * OrderItem.ID_ALLOCATION_SIZE,
+                jdbcTemplate.queryForObject(FIND_NEXT_VALUE, Long.class));
+    }
 }
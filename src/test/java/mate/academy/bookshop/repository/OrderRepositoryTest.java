@@ -3,9 +3,19 @@ package mate.academy.bookshop.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.model.User;
 import mate.academy.bookshop.model.order.Order;
+import mate.academy.bookshop.model.order.OrderItem;
+import mate.academy.bookshop.model.order.Status;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,20 +24,29 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.transaction.annotation.Transactional;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Sql(scripts = "classpath:database/orders/setup-before-repository-test.sql",
-        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
 @Sql(scripts = "classpath:database/orders/cleanup-after-repository.sql",
-        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD,
+        config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
 class OrderRepositoryTest {
 
     private static final int ORDER_ITEM_QUANTITY = 2;
+    private static final int ORDER_ITEMS_COUNT = 50;
+    private static final long MAX_CHECKOUT_STATEMENTS = 4;
 
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @DisplayName("Find order by id with items and books")
     @Test
@@ -46,21 +65,54 @@ class OrderRepositoryTest {
                 .getId());
     }
 
-    @DisplayName("Find all orders by user id with items and books")
+    @DisplayName("Find page of user order ids, then order and item rows")
     @Test
-    @Transactional
-    void findAllByUserId_OrdersExist_ReturnsOrdersWithItemsAndBooks() {
+    void findRowsByIdIn_OrderIdsOfUser_ReturnsOrderAndItemRows() {
         Pageable pageable = PageRequest.of(0, 10);
-        List<Order> orders = orderRepository.findAllByUserId(1L, pageable);
+        List<Long> ids = orderRepository.findOrderIdsByUserId(1L, pageable);
+        List<OrderRow> orders = orderRepository.findRowsByIdIn(ids);
+        List<OrderItemRow> items = orderItemRepository.findRowsByOrderIdIn(ids);
 
-        assertEquals(1, orders.size());
-        Order fetchedOrder = orders.get(0);
-        assertEquals(1L, fetchedOrder.getId());
-        assertEquals(1, fetchedOrder.getOrderItems().size());
-        assertEquals(1L, fetchedOrder.getOrderItems()
-                .iterator()
-                .next()
-                .getBook()
-                .getId());
+        assertEquals(List.of(1L), orders.stream().map(OrderRow::id).toList());
+        assertEquals(Status.PENDING, orders.get(0).status());
+        assertEquals(1, items.size());
+        OrderItemRow fetchedItem = items.get(0);
+        assertEquals(1L, fetchedItem.orderId());
+        assertEquals(1L, fetchedItem.bookId());
+        assertEquals(ORDER_ITEM_QUANTITY, fetchedItem.quantity());
+    }
+
+    @DisplayName("Save order with many items in batched inserts")
+    @Test
+    @Transactional
+    void save_OrderWithFiftyItems_InsertsItemsInBatches() {
+        Order order = new Order();
+        order.setUser(entityManager.getReference(User.class, 1L));
+        order.setStatus(Status.PENDING);
+        order.setTotal(BigDecimal.TEN);
+        order.setOrderDate(LocalDateTime.now());
+        order.setShippingAddress("test");
+        order.setOrderItems(new HashSet<>());
+        for (int i = 0; i < ORDER_ITEMS_COUNT; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setBook(entityManager.getReference(Book.class, 1L));
+            orderItem.setQuantity(ORDER_ITEM_QUANTITY);
+            orderItem.setPrice(BigDecimal.TEN);
+            order.getOrderItems().add(orderItem);
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        statistics.setStatisticsEnabled(false);
+        assertEquals(ORDER_ITEMS_COUNT + 1, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_CHECKOUT_STATEMENTS,
+                "Prepared statements: " + statistics.getPrepareStatementCount());
     }
 }
@@ -0,0 +1,133 @@
+package mate.academy.bookshop.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import mate.academy.bookshop.model.Role;
+import mate.academy.bookshop.model.User;
+import mate.academy.bookshop.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private JwtUtil jwtUtil;
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private MeterRegistry meterRegistry;
+    private JwtTokenCache jwtTokenCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenCache = new JwtTokenCache(jwtUtil, userDetailsService, meterRegistry, 100,
+                Duration.ofMinutes(5));
+        user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setPassword("password");
+        user.setRoles(Set.of(new Role()));
+    }
+
+    @DisplayName("Repeated requests with the same token are authenticated once")
+    @Test
+    public void getPrincipal_SameToken_VerifiesAndLoadsUserOnce() {
+        mockValidToken();
+
+        jwtTokenCache.getPrincipal(TOKEN);
+        UserDetails response = jwtTokenCache.getPrincipal(TOKEN);
+
+        assertEquals(EMAIL, response.getUsername());
+        verify(jwtUtil, times(1)).parseAndValidate(TOKEN);
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+        assertEquals(1, meterRegistry.counter("bookshop.jwt.cache", "result", "hit").count());
+        assertEquals(1, meterRegistry.timer("bookshop.jwt.authentication",
+                "phase", "user-load").count());
+    }
+
+    @DisplayName("Cached principal is a copy without the password")
+    @Test
+    public void getPrincipal_ValidToken_ReturnsUserSnapshot() {
+        mockValidToken();
+
+        User response = (User) jwtTokenCache.getPrincipal(TOKEN);
+
+        assertNotSame(user, response);
+        assertEquals(user.getId(), response.getId());
+        assertEquals(user.getRoles(), response.getRoles());
+        assertNull(response.getPassword());
+    }
+
+    @DisplayName("Invalid tokens are rejected and not cached")
+    @Test
+    public void getPrincipal_InvalidToken_ReturnsNull() {
+        when(jwtUtil.parseAndValidate(TOKEN)).thenReturn(Optional.empty());
+
+        assertNull(jwtTokenCache.getPrincipal(TOKEN));
+        assertNull(jwtTokenCache.getPrincipal(TOKEN));
+
+        verify(jwtUtil, times(2)).parseAndValidate(TOKEN);
+    }
+
+    @DisplayName("Evicting a user forces the next request to reload it")
+    @Test
+    public void evictUser_CachedUser_ReloadsUserOnNextRequest() {
+        mockValidToken();
+        jwtTokenCache.getPrincipal(TOKEN);
+
+        jwtTokenCache.evictUser(EMAIL);
+        jwtTokenCache.getPrincipal(TOKEN);
+
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @DisplayName("Principal loaded before a user eviction is not cached after it")
+    @Test
+    public void getPrincipal_UserEvictedWhileLoading_ReloadsUserOnNextRequest() {
+        mockValidToken();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(invocation -> {
+            jwtTokenCache.evictUser(EMAIL);
+            return user;
+        }).thenReturn(user);
+
+        jwtTokenCache.getPrincipal(TOKEN);
+        jwtTokenCache.getPrincipal(TOKEN);
+
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+        assertEquals(0, meterRegistry.counter("bookshop.jwt.cache", "result", "hit").count());
+    }
+
+    private void mockValidToken() {
+        Claims claims = Jwts.claims()
+                .subject(EMAIL)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+        when(jwtUtil.parseAndValidate(TOKEN)).thenReturn(Optional.of(claims));
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+    }
+}
@@ -0,0 +1,186 @@
+package mate.academy.bookshop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import mate.academy.bookshop.dto.order.OrderRequestDto;
+import mate.academy.bookshop.dto.order.OrderRequestStatusDto;
+import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InsufficientStockException;
+import mate.academy.bookshop.mapper.OrderRequestMapper;
+import mate.academy.bookshop.model.order.OrderRequest;
+import mate.academy.bookshop.model.order.OrderRequestStatus;
+import mate.academy.bookshop.repository.OrderRequestRepository;
+import mate.academy.bookshop.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderServiceImplTest {
+    private static final Long USER_ID = 1L;
+    private static final Long ORDER_REQUEST_ID = 10L;
+    private static final Long ORDER_ID = 20L;
+    private static final String IDEMPOTENCY_KEY = "checkout-1";
+    private static final String ADDRESS = "Kyiv, Khreshchatyk 1";
+    private static final int WORKERS = 1;
+    private static final int CAPACITY = 1;
+    private static final long PROCESSING_TIMEOUT_MS = 1000;
+
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private OrderRequestRepository orderRequestRepository;
+    @Mock
+    private OrderRequestMapper orderRequestMapper;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ThreadPoolTaskExecutor executor;
+    private AsyncOrderServiceImpl asyncOrderService;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(WORKERS);
+        executor.setMaxPoolSize(WORKERS);
+        executor.setQueueCapacity(CAPACITY);
+        executor.initialize();
+        asyncOrderService = new AsyncOrderServiceImpl(orderService, orderRequestRepository,
+                orderRequestMapper, transactionTemplate, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @DisplayName("Submit with a known idempotency key returns the stored request")
+    @Test
+    public void submit_KnownIdempotencyKey_ReturnsStoredRequestWithoutQueueing() {
+        OrderRequest orderRequest = createOrderRequest(OrderRequestStatus.COMPLETED);
+        orderRequest.setOrderId(ORDER_ID);
+        OrderRequestStatusDto expected = new OrderRequestStatusDto(IDEMPOTENCY_KEY,
+                OrderRequestStatus.COMPLETED.name(), ORDER_ID, null);
+        when(orderRequestRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.of(orderRequest));
+        when(orderRequestMapper.toDto(orderRequest)).thenReturn(expected);
+
+        OrderRequestStatusDto actual = asyncOrderService.submit(new OrderRequestDto(ADDRESS),
+                USER_ID, IDEMPOTENCY_KEY);
+
+        assertEquals(expected, actual);
+        verify(orderRequestRepository, never()).saveAndFlush(any());
+        verify(orderService, never()).placeOrder(any(), any());
+    }
+
+    @DisplayName("Submit with a new idempotency key queues the order and marks it completed")
+    @Test
+    public void submit_NewIdempotencyKey_PlacesOrderAndMarksCompleted() {
+        runTransactionsInline();
+        OrderRequest pending = createOrderRequest(OrderRequestStatus.PENDING);
+        when(orderRequestRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty());
+        when(orderRequestRepository.saveAndFlush(any(OrderRequest.class)))
+                .thenAnswer(invocation -> {
+                    OrderRequest saved = invocation.getArgument(0);
+                    saved.setId(ORDER_REQUEST_ID);
+                    return saved;
+                });
+        when(orderRequestRepository.findById(ORDER_REQUEST_ID)).thenReturn(Optional.of(pending));
+        when(orderService.placeOrder(new OrderRequestDto(ADDRESS), USER_ID))
+                .thenReturn(createOrderResponseDto());
+        when(orderRequestRepository.markCompleted(ORDER_REQUEST_ID, ORDER_ID)).thenReturn(1);
+        OrderRequestStatusDto expected = new OrderRequestStatusDto(IDEMPOTENCY_KEY,
+                OrderRequestStatus.PENDING.name(), null, null);
+        when(orderRequestMapper.toDto(any(OrderRequest.class))).thenReturn(expected);
+
+        OrderRequestStatusDto actual = asyncOrderService.submit(new OrderRequestDto(ADDRESS),
+                USER_ID, IDEMPOTENCY_KEY);
+
+        assertEquals(expected, actual);
+        verify(orderRequestRepository, timeout(PROCESSING_TIMEOUT_MS))
+                .markCompleted(ORDER_REQUEST_ID, ORDER_ID);
+        verify(orderRequestRepository, never()).markFailed(any(), any());
+    }
+
+    @DisplayName("Queued order that cannot be placed is marked failed with the reason")
+    @Test
+    public void submit_InsufficientStock_MarksRequestFailed() {
+        runTransactionsInline();
+        OrderRequest pending = createOrderRequest(OrderRequestStatus.PENDING);
+        when(orderRequestRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty());
+        when(orderRequestRepository.saveAndFlush(any(OrderRequest.class)))
+                .thenAnswer(invocation -> {
+                    OrderRequest saved = invocation.getArgument(0);
+                    saved.setId(ORDER_REQUEST_ID);
+                    return saved;
+                });
+        when(orderRequestRepository.findById(ORDER_REQUEST_ID)).thenReturn(Optional.of(pending));
+        String error = "Not enough stock for book with id 1";
+        when(orderService.placeOrder(new OrderRequestDto(ADDRESS), USER_ID))
+                .thenThrow(new InsufficientStockException(error));
+
+        asyncOrderService.submit(new OrderRequestDto(ADDRESS), USER_ID, IDEMPOTENCY_KEY);
+
+        verify(orderRequestRepository, timeout(PROCESSING_TIMEOUT_MS))
+                .markFailed(ORDER_REQUEST_ID, error);
+        verify(orderRequestRepository, never()).markCompleted(any(), any());
+    }
+
+    @DisplayName("Status of an unknown idempotency key throws EntityNotFoundException")
+    @Test
+    public void getStatus_UnknownIdempotencyKey_ThrowsEntityNotFoundException() {
+        when(orderRequestRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> asyncOrderService.getStatus(USER_ID, IDEMPOTENCY_KEY));
+
+        assertEquals("No order request with idempotency key " + IDEMPOTENCY_KEY,
+                exception.getMessage());
+    }
+
+    private OrderRequest createOrderRequest(OrderRequestStatus status) {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setId(ORDER_REQUEST_ID);
+        orderRequest.setUserId(USER_ID);
+        orderRequest.setIdempotencyKey(IDEMPOTENCY_KEY);
+        orderRequest.setShippingAddress(ADDRESS);
+        orderRequest.setStatus(status);
+        orderRequest.setCreatedAt(LocalDateTime.now());
+        return orderRequest;
+    }
+
+    private OrderResponseDto createOrderResponseDto() {
+        return new OrderResponseDto(ORDER_ID, USER_ID, Set.of(), LocalDateTime.now(),
+                BigDecimal.TEN, "PENDING");
+    }
+
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
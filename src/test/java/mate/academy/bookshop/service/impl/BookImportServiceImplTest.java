@@ -0,0 +1,170 @@
+package mate.academy.bookshop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookImportErrorDto;
+import mate.academy.bookshop.dto.book.BookImportResultDto;
+import mate.academy.bookshop.dto.book.CreateBookRequestDto;
+import mate.academy.bookshop.mapper.BookMapper;
+import mate.academy.bookshop.model.Book;
+import mate.academy.bookshop.model.Category;
+import mate.academy.bookshop.repository.CategoryRepository;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.service.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_REPORTED_ERRORS = 10;
+    private static final Long CATEGORY_ID = 1L;
+    private static final Long UNKNOWN_CATEGORY_ID = 99L;
+    private static final String EXISTING_ISBN = "ISBN-00000";
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private BookMapper bookMapper;
+    @Mock
+    private BookSearchService bookSearchService;
+    @Mock
+    private CategoryMembershipIndex categoryMembershipIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BookImportServiceImpl bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(bookRepository, categoryRepository,
+                bookMapper, bookSearchService, categoryMembershipIndex, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                CHUNK_SIZE, MAX_REPORTED_ERRORS);
+    }
+
+    @DisplayName("Valid lines are saved in chunks and categories are resolved once")
+    @Test
+    public void importBooks_ValidLines_SavesInChunks() throws Exception {
+        Category category = new Category();
+        category.setId(CATEGORY_ID);
+        when(categoryRepository.findAllById(Set.of(CATEGORY_ID))).thenReturn(List.of(category));
+        when(bookMapper.toModelWithoutCategories(any(CreateBookRequestDto.class)))
+                .thenAnswer(invocation -> {
+                    Book book = new Book();
+                    book.setIsbn(invocation.<CreateBookRequestDto>getArgument(0).getIsbn());
+                    return book;
+                });
+        when(bookMapper.toDto(any(Book.class))).thenReturn(new BookDto());
+
+        BookImportResultDto result = bookImportService.importBooks(toInputStream(
+                toJson(createRequestDto("ISBN-00001", CATEGORY_ID)),
+                toJson(createRequestDto("ISBN-00002", CATEGORY_ID)),
+                "",
+                toJson(createRequestDto("ISBN-00003", CATEGORY_ID))));
+
+        assertEquals(new BookImportResultDto(3, 0, List.of()), result);
+        verify(categoryRepository, times(1)).findAllById(anyCollection());
+        verify(bookRepository, times(2)).insertAll(anyList());
+        verify(bookSearchService, times(3)).index(any(BookDto.class));
+        verify(categoryMembershipIndex, times(2)).addAll(any(Map.class));
+    }
+
+    @DisplayName("Invalid lines are reported with their line numbers")
+    @Test
+    public void importBooks_InvalidLines_ReportsErrors() throws Exception {
+        when(bookRepository.findAllIsbnsIn(anyCollection())).thenReturn(List.of(EXISTING_ISBN));
+        CreateBookRequestDto blankTitle = createRequestDto("ISBN-00001", CATEGORY_ID);
+        blankTitle.setTitle("");
+
+        BookImportResultDto result = bookImportService.importBooks(toInputStream(
+                "{not json",
+                toJson(blankTitle),
+                toJson(createRequestDto(EXISTING_ISBN, CATEGORY_ID)),
+                toJson(createRequestDto("ISBN-00002", UNKNOWN_CATEGORY_ID))));
+
+        assertEquals(0, result.imported());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.errors().stream()
+                .map(BookImportErrorDto::line)
+                .toList());
+        assertEquals("title can not be blank", result.errors().get(1).message());
+        assertEquals("Book with isbn " + EXISTING_ISBN + " already exists",
+                result.errors().get(2).message());
+        assertEquals("There is no category with id " + UNKNOWN_CATEGORY_ID,
+                result.errors().get(3).message());
+    }
+
+    @DisplayName("A chunk that can't be saved is retried line by line to find the bad rows")
+    @Test
+    public void importBooks_ChunkSaveFails_ReportsOnlyFailingLines() throws Exception {
+        when(bookMapper.toModelWithoutCategories(any(CreateBookRequestDto.class)))
+                .thenAnswer(invocation -> {
+                    Book book = new Book();
+                    book.setIsbn(invocation.<CreateBookRequestDto>getArgument(0).getIsbn());
+                    return book;
+                });
+        doAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            if (books.stream().anyMatch(book -> book.getIsbn().equals("ISBN-00002"))) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return null;
+        }).when(bookRepository).insertAll(anyList());
+        when(bookMapper.toDto(any(Book.class))).thenReturn(new BookDto());
+
+        BookImportResultDto result = bookImportService.importBooks(toInputStream(
+                toJson(createRequestDto("ISBN-00001", null)),
+                toJson(createRequestDto("ISBN-00002", null))));
+
+        assertEquals(new BookImportResultDto(1, 1,
+                List.of(new BookImportErrorDto(2, "Could not save book: Duplicate entry"))),
+                result);
+        verify(bookRepository, times(3)).insertAll(anyList());
+        verify(bookSearchService, times(1)).index(any(BookDto.class));
+    }
+
+    private CreateBookRequestDto createRequestDto(String isbn, Long categoryId) {
+        CreateBookRequestDto requestDto = new CreateBookRequestDto();
+        requestDto.setTitle("Title");
+        requestDto.setAuthor("Author");
+        requestDto.setIsbn(isbn);
+        requestDto.setPrice(BigDecimal.TEN);
+        requestDto.setDescription("Description");
+        requestDto.setCategories(categoryId == null ? null : Set.of(categoryId));
+        return requestDto;
+    }
+
+    private String toJson(CreateBookRequestDto requestDto) throws Exception {
+        return objectMapper.writeValueAsString(requestDto);
+    }
+
+    private ByteArrayInputStream toInputStream(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,167 @@
+package mate.academy.bookshop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.repository.book.BookIndexRow;
+import mate.academy.bookshop.repository.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchServiceImplTest {
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20);
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchServiceImpl bookSearchService;
+
+    private BookDto dune;
+    private BookDto duneMessiah;
+    private BookDto hobbit;
+
+    @BeforeEach
+    void setUp() {
+        dune = createBookDto(1L, "Dune", "Frank Herbert", "Desert planet Arrakis");
+        duneMessiah = createBookDto(2L, "Dune Messiah", "Frank Herbert",
+                "Paul rules the empire from the desert of Dune");
+        hobbit = createBookDto(3L, "The Hobbit", "J. R. R. Tolkien", "There and back again");
+        bookSearchService.index(dune);
+        bookSearchService.index(duneMessiah);
+        bookSearchService.index(hobbit);
+    }
+
+    @DisplayName("Search ranks books by term relevance")
+    @Test
+    public void search_MatchingTerms_ReturnsBooksOrderedByScore() {
+        List<BookDto> response = bookSearchService.search("dune desert", PAGEABLE);
+
+        assertEquals(List.of(dune, duneMessiah), response);
+    }
+
+    @DisplayName("Search is case insensitive and ignores punctuation")
+    @Test
+    public void search_MixedCaseQuery_ReturnsMatchingBook() {
+        List<BookDto> response = bookSearchService.search("TOLKIEN!", PAGEABLE);
+
+        assertEquals(List.of(hobbit), response);
+    }
+
+    @DisplayName("Search applies pageable offset and size")
+    @Test
+    public void search_SecondPage_ReturnsRemainingBooks() {
+        List<BookDto> response = bookSearchService.search("herbert", PageRequest.of(1, 1));
+
+        assertEquals(List.of(duneMessiah), response);
+    }
+
+    @DisplayName("Removed books are no longer returned")
+    @Test
+    public void remove_IndexedBook_ExcludesBookFromResults() {
+        bookSearchService.remove(hobbit.getId());
+
+        assertTrue(bookSearchService.search("hobbit", PAGEABLE).isEmpty());
+    }
+
+    @DisplayName("Re-indexing a book replaces its previous terms")
+    @Test
+    public void index_UpdatedBook_ReplacesOldTerms() {
+        BookDto updated = createBookDto(3L, "The Silmarillion", "J. R. R. Tolkien",
+                "Tales of the First Age");
+
+        bookSearchService.index(updated);
+
+        assertTrue(bookSearchService.search("hobbit", PAGEABLE).isEmpty());
+        assertEquals(List.of(updated), bookSearchService.search("silmarillion", PAGEABLE));
+    }
+
+    @DisplayName("Rebuild loads every book with its category ids from the repository")
+    @Test
+    public void rebuild_BooksInRepository_ReplacesIndexContent() {
+        BookDto fromRepository = createBookDto(4L, "Neuromancer", "William Gibson",
+                "Cyberspace");
+        fromRepository.setCategoryIds(Set.of(1L, 2L));
+        when(bookRepository.streamAllForIndex()).thenReturn(Stream.of(
+                createIndexRow(fromRepository, 1L),
+                createIndexRow(fromRepository, 2L)));
+
+        bookSearchService.rebuild();
+
+        assertTrue(bookSearchService.search("dune", PAGEABLE).isEmpty());
+        assertEquals(List.of(fromRepository), bookSearchService.search("gibson", PAGEABLE));
+    }
+
+    @DisplayName("Books indexed while the index is rebuilt are kept")
+    @Test
+    public void rebuild_ConcurrentIndex_KeepsIndexedBook() {
+        BookDto fromRepository = createBookDto(4L, "Neuromancer", "William Gibson",
+                "Cyberspace");
+        BookDto indexedDuringRebuild = createBookDto(5L, "Count Zero", "William Gibson",
+                "Sprawl");
+        when(bookRepository.streamAllForIndex()).thenAnswer(invocation -> {
+            bookSearchService.index(indexedDuringRebuild);
+            bookSearchService.remove(fromRepository.getId());
+            return Stream.of(createIndexRow(fromRepository, null));
+        });
+
+        bookSearchService.rebuild();
+
+        assertEquals(List.of(indexedDuringRebuild),
+                bookSearchService.search("gibson", PAGEABLE));
+    }
+
+    @DisplayName("Deleting a category removes its id from indexed books")
+    @Test
+    public void removeCategory_IndexedBooks_RemovesCategoryId() {
+        dune.setCategoryIds(Set.of(1L, 2L));
+        bookSearchService.index(dune);
+
+        bookSearchService.removeCategory(1L);
+
+        assertEquals(Set.of(2L), bookSearchService.search("arrakis", PAGEABLE).get(0)
+                .getCategoryIds());
+    }
+
+    @DisplayName("Indexed and returned books are copies of the shared instances")
+    @Test
+    public void search_MutatedBooks_KeepsIndexedContent() {
+        dune.setTitle("Changed");
+        bookSearchService.search("arrakis", PAGEABLE).get(0).setAuthor("Changed");
+
+        BookDto response = bookSearchService.search("arrakis", PAGEABLE).get(0);
+
+        assertEquals("Dune", response.getTitle());
+        assertEquals("Frank Herbert", response.getAuthor());
+    }
+
+    private BookDto createBookDto(Long id, String title, String author, String description) {
+        BookDto bookDto = new BookDto();
+        bookDto.setId(id);
+        bookDto.setTitle(title);
+        bookDto.setAuthor(author);
+        bookDto.setDescription(description);
+        bookDto.setPrice(BigDecimal.TEN);
+        return bookDto;
+    }
+
+    private BookIndexRow createIndexRow(BookDto bookDto, Long categoryId) {
+        return new BookIndexRow(bookDto.getId(), bookDto.getTitle(), bookDto.getAuthor(),
+                bookDto.getPrice(), bookDto.getDescription(), bookDto.getCoverImage(), categoryId);
+    }
+}
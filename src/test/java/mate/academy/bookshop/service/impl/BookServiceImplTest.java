@@ -1,39 +1,57 @@
 package mate.academy.bookshop.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import mate.academy.bookshop.cache.BookDtoCache;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDto;
+import mate.academy.bookshop.dto.book.BookExportDto;
 import mate.academy.bookshop.dto.book.BookSearchParametersDto;
 import mate.academy.bookshop.dto.book.CreateBookRequestDto;
 import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InvalidSearchParametersException;
 import mate.academy.bookshop.mapper.BookMapper;
 import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.Category;
-import mate.academy.bookshop.repository.CategoryRepository;
+import mate.academy.bookshop.repository.book.BookExportRow;
 import mate.academy.bookshop.repository.book.BookRepository;
 import mate.academy.bookshop.repository.book.BookSpecificationBuilder;
+import mate.academy.bookshop.service.BookSearchService;
+import mate.academy.bookshop.util.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -61,11 +79,17 @@ class BookServiceImplTest {
     @Mock
     private BookSpecificationBuilder specificationBuilder;
     @Mock
-    private CategoryRepository categoryRepository;
-    @Mock
     private BookRepository bookRepository;
     @Mock
     private BookMapper bookMapper;
+    @Mock
+    private BookSearchService bookSearchService;
+    @Spy
+    private BookDtoCache bookDtoCache = new BookDtoCache(1_000_000, Duration.ofMinutes(10));
+    @Mock
+    private CategoryMembershipIndex categoryMembershipIndex;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -105,26 +129,28 @@ class BookServiceImplTest {
         expected.setCoverImage(COVER_IMAGE);
         expected.setCategoryIds(CATEGORY_IDS);
         when(bookMapper.toModel(requestDto)).thenReturn(book);
-        when(categoryRepository.findById(any(Long.class))).thenReturn(Optional.of(new Category()));
         when(bookRepository.save(book)).thenReturn(book);
         when(bookMapper.toDto(book)).thenReturn(expected);
 
         BookDto response = bookService.save(requestDto);
 
         assertEquals(expected, response);
+        verify(bookSearchService).index(expected);
+        verify(categoryMembershipIndex).add(expected.getId(), CATEGORY_IDS);
     }
 
     @DisplayName("Save book without category - throws EntityNotFoundException")
     @Test
     public void save_BookWithoutCategory_ThrowsEntityNotFoundException() {
-        when(bookMapper.toModel(requestDto)).thenReturn(book);
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookMapper.toModel(requestDto))
+                .thenThrow(new EntityNotFoundException(EXPECTED_CATEGORY_NOT_FOUND_MESSAGE));
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, ()
                 -> bookService.save(requestDto));
 
         String actual = exception.getMessage();
         assertEquals(EXPECTED_CATEGORY_NOT_FOUND_MESSAGE, actual);
+        verifyNoInteractions(bookRepository, bookSearchService);
     }
 
     @DisplayName("Find all book default pageable params")
@@ -192,6 +218,41 @@ class BookServiceImplTest {
         assertEquals(List.of(), response);
     }
 
+    @DisplayName("Scroll books after cursor")
+    @Test
+    public void findAllAfter_ValidCursor_ReturnsNextSliceWithCursor() {
+        Book book2 = createBook("Title2", "12345");
+        book.setId(6L);
+        book2.setId(5L);
+        Pageable pageable = PageRequest.of(0, 2);
+        String after = Cursor.of(4L, 4L).encode();
+        when(bookRepository.findIdsAfter(4L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(5L, 6L), pageable, true));
+        when(bookRepository.findAllByIdIn(List.of(5L, 6L))).thenReturn(List.of(book, book2));
+        BookDto bookDto = bookToDto(book);
+        BookDto book2Dto = bookToDto(book2);
+        when(bookMapper.toDto(book2)).thenReturn(book2Dto);
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        CursorSliceDto<BookDto> response = bookService.findAllAfter(after, pageable);
+
+        assertEquals(List.of(book2Dto, bookDto), response.content());
+        assertEquals(6L, Cursor.decode(response.next()).id());
+    }
+
+    @DisplayName("Scroll books past the last book")
+    @Test
+    public void findAllAfter_NoBooksLeft_ReturnsEmptySliceWithoutCursor() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(bookRepository.findIdsAfter(0L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        CursorSliceDto<BookDto> response = bookService.findAllAfter(null, pageable);
+
+        assertTrue(response.content().isEmpty());
+        assertNull(response.next());
+    }
+
     @DisplayName("Find book by id with valid id")
     @Test
     public void findBookById_ValidId_ReturnsBookDto() {
@@ -204,6 +265,21 @@ class BookServiceImplTest {
         assertEquals(bookDto, response);
     }
 
+    @DisplayName("Repeated lookups of the same book are served from the cache")
+    @Test
+    public void findBookById_CachedBook_LoadsFromRepositoryOnce() {
+        BookDto bookDto = bookToDto(book);
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookRepository.findById(BOOK_ID)).thenReturn(Optional.of(book));
+
+        bookService.findBookById(BOOK_ID);
+        BookDto response = bookService.findBookById(BOOK_ID);
+
+        assertEquals(bookDto, response);
+        verify(bookRepository, times(1)).findById(BOOK_ID);
+        assertEquals(1, bookService.getCacheStats().hitCount());
+    }
+
     @DisplayName("Find book by id with invalid id")
     @Test
     public void findBookById_InvalidId_ThrowsEntityNotFoundException() {
@@ -252,6 +328,8 @@ class BookServiceImplTest {
         bookService.deleteById(BOOK_ID);
 
         verify(bookRepository).deleteById(BOOK_ID);
+        verify(bookDtoCache).evict(BOOK_ID);
+        verify(bookSearchService).remove(BOOK_ID);
     }
 
     @DisplayName("Delete book by id with invalid id")
@@ -315,6 +393,62 @@ class BookServiceImplTest {
         assertTrue(response.isEmpty());
     }
 
+    @DisplayName("Search books with full-text query")
+    @Test
+    public void search_WithQuery_ReturnsRankedBookDtosFromIndex() {
+        BookSearchParametersDto params = new BookSearchParametersDto();
+        params.setQuery("title author");
+        Pageable pageable = PageRequest.of(0, 20);
+        List<BookDto> expected = List.of(bookToDto(book));
+        when(bookSearchService.search("title author", pageable)).thenReturn(expected);
+
+        List<BookDto> response = bookService.search(params, pageable);
+
+        assertEquals(expected, response);
+        verifyNoInteractions(bookRepository, specificationBuilder);
+    }
+
+    @DisplayName("Search with full-text query and filters is rejected")
+    @Test
+    public void search_QueryWithFilters_ThrowsInvalidSearchParametersException() {
+        BookSearchParametersDto params = new BookSearchParametersDto();
+        params.setQuery("title author");
+        params.setAuthors(new String[]{"Author"});
+        Pageable pageable = PageRequest.of(0, 20);
+
+        assertThrows(InvalidSearchParametersException.class, ()
+                -> bookService.search(params, pageable));
+        verifyNoInteractions(bookSearchService, bookRepository);
+    }
+
+    @DisplayName("Export writes one JSON line per book with all of its category ids")
+    @Test
+    public void exportAll_RowPerCategory_WritesOneLinePerBook() throws Exception {
+        when(bookRepository.streamAllForExport()).thenReturn(Stream.of(
+                createExportRow(1L, 1L),
+                createExportRow(1L, 2L),
+                createExportRow(2L, null)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        bookService.exportAll(outputStream);
+
+        String content = outputStream.toString(StandardCharsets.UTF_8);
+        List<BookExportDto> actual = content.lines()
+                .map(this::readBookExportDto)
+                .toList();
+        assertEquals(2, content.lines().count());
+        assertTrue(content.endsWith("\n"));
+        assertEquals(Set.of(1L, 2L), actual.get(0).categories());
+        assertEquals(ISBN, actual.get(0).isbn());
+        assertEquals(2L, actual.get(1).id());
+        assertTrue(actual.get(1).categories().isEmpty());
+    }
+
+    private BookExportRow createExportRow(Long id, Long categoryId) {
+        return new BookExportRow(id, TITLE, AUTHOR, ISBN, PRICE, DESCRIPTION, COVER_IMAGE, 0,
+                categoryId);
+    }
+
     private Book createBook(String title, String isbn) {
         Book book = new Book();
         book.setAuthor(AUTHOR);
@@ -365,4 +499,9 @@ class BookServiceImplTest {
         requestDto.setCategories(CATEGORY_IDS);
         return requestDto;
     }
+
+    @SneakyThrows
+    private BookExportDto readBookExportDto(String line) {
+        return objectMapper.readValue(line, BookExportDto.class);
+    }
 }
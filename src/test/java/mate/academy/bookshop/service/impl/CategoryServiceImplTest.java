@@ -1,8 +1,10 @@
 package mate.academy.bookshop.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -10,17 +12,21 @@ import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import mate.academy.bookshop.cache.BookDtoCache;
+import mate.academy.bookshop.cache.CategoryMembershipIndex;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.bookshop.dto.category.CategoryRequestDto;
 import mate.academy.bookshop.dto.category.CategoryResponseDto;
 import mate.academy.bookshop.exception.EntityNotFoundException;
 import mate.academy.bookshop.mapper.BookMapper;
 import mate.academy.bookshop.mapper.CategoryMapper;
-import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.Category;
 import mate.academy.bookshop.repository.CategoryRepository;
 import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.BookRow;
+import mate.academy.bookshop.service.BookSearchService;
+import mate.academy.bookshop.util.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +38,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceImplTest {
@@ -47,11 +54,8 @@ class CategoryServiceImplTest {
     private static final String AUTHOR = "Author";
     private static final BigDecimal PRICE = BigDecimal.TEN;
     private static final String TITLE1 = "Title1";
-    private static final String ISBN1 = "234567";
     private static final String TITLE2 = "Title2";
-    private static final String ISBN2 = "234560";
     private static final String TITLE3 = "Title3";
-    private static final String ISBN3 = "234599";
     private static final String COVER_IMAGE = "coverImage";
 
     @Mock
@@ -66,6 +70,13 @@ class CategoryServiceImplTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private BookDtoCache bookDtoCache;
+    @Mock
+    private CategoryMembershipIndex categoryMembershipIndex;
+    @Mock
+    private BookSearchService bookSearchService;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -135,6 +146,9 @@ class CategoryServiceImplTest {
         categoryService.deleteById(CATEGORY_ID);
 
         verify(categoryRepository).existsById(CATEGORY_ID);
+        verify(bookDtoCache).evictByCategoryId(CATEGORY_ID);
+        verify(categoryMembershipIndex).removeCategory(CATEGORY_ID);
+        verify(bookSearchService).removeCategory(CATEGORY_ID);
     }
 
     @DisplayName("Delete when category does not exist")
@@ -234,15 +248,15 @@ class CategoryServiceImplTest {
     @DisplayName("Get books by category id with existing id")
     @Test
     public void getBooksByCategoryId_ExcitingId_ReturnsListOfBookDtoWithoutCategoryIds() {
-        Book book1 = createBook(TITLE1, ISBN1);
-        Book book2 = createBook(TITLE2, ISBN2);
-        Book book3 = createBook(TITLE3, ISBN3);
+        BookRow book1 = createBookRow(1L, TITLE1);
+        BookRow book2 = createBookRow(2L, TITLE2);
+        BookRow book3 = createBookRow(3L, TITLE3);
         Pageable pageable = PageRequest.of(0, 20);
-        List<Book> books = List.of(book1, book2, book3);
-        Page<Book> bookPage = new PageImpl<>(books, pageable, 3);
+        List<BookRow> books = List.of(book1, book2, book3);
+        Page<BookRow> bookPage = new PageImpl<>(books, pageable, 3);
         when(bookRepository.findByCategoryId(CATEGORY_ID, pageable)).thenReturn(bookPage);
-        when(bookMapper.toDtoWithoutCategories(any(Book.class))).thenAnswer(invocation -> {
-            Book book = invocation.getArgument(0);
+        when(bookMapper.toDtoWithoutCategories(any(BookRow.class))).thenAnswer(invocation -> {
+            BookRow book = invocation.getArgument(0);
             return toBookDtoWithoutCategories(book);
         });
         List<BookDtoWithoutCategoryIds> expected = books.stream()
@@ -259,7 +273,7 @@ class CategoryServiceImplTest {
     @Test
     public void getBooksByCategoryId_NoBooksWithCategoryId_ReturnsEmptyList() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Book> bookPage = new PageImpl<>(Collections.emptyList(), pageable, 3);
+        Page<BookRow> bookPage = new PageImpl<>(Collections.emptyList(), pageable, 3);
         when(bookRepository.findByCategoryId(CATEGORY_ID, pageable)).thenReturn(bookPage);
 
         List<BookDtoWithoutCategoryIds> response = categoryService
@@ -268,6 +282,82 @@ class CategoryServiceImplTest {
         assertEquals(Collections.emptyList(), response);
     }
 
+    @DisplayName("Scroll books by category id returns cursor of last book")
+    @Test
+    public void getBooksByCategoryIdAfter_MoreBooksLeft_ReturnsNextCursor() {
+        BookRow book1 = createBookRow(3L, TITLE1);
+        BookRow book2 = createBookRow(4L, TITLE2);
+        Pageable pageable = PageRequest.of(0, 2);
+        String after = Cursor.of(2L, 2L).encode();
+        when(bookRepository.findByCategoryIdAfter(CATEGORY_ID, 2L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(book1, book2), pageable, true));
+        when(bookMapper.toDtoWithoutCategories(any(BookRow.class))).thenAnswer(invocation -> {
+            BookRow book = invocation.getArgument(0);
+            return toBookDtoWithoutCategories(book);
+        });
+
+        CursorSliceDto<BookDtoWithoutCategoryIds> response = categoryService
+                .getBooksByCategoryIdAfter(CATEGORY_ID, after, pageable);
+
+        assertEquals(List.of(toBookDtoWithoutCategories(book1),
+                toBookDtoWithoutCategories(book2)), response.content());
+        assertEquals(4L, Cursor.decode(response.next()).id());
+    }
+
+    @DisplayName("Scroll books by category id on last slice returns no cursor")
+    @Test
+    public void getBooksByCategoryIdAfter_LastSlice_ReturnsNoCursor() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(bookRepository.findByCategoryIdAfter(CATEGORY_ID, 0L, pageable))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), pageable, false));
+
+        CursorSliceDto<BookDtoWithoutCategoryIds> response = categoryService
+                .getBooksByCategoryIdAfter(CATEGORY_ID, null, pageable);
+
+        assertEquals(Collections.emptyList(), response.content());
+        assertNull(response.next());
+    }
+
+    @DisplayName("Get books by category id reads the page of ids from the membership index")
+    @Test
+    public void getBooksByCategoryId_IndexReady_LoadsBooksByIndexedIds() {
+        BookRow book1 = createBookRow(5L, TITLE1);
+        BookRow book2 = createBookRow(7L, TITLE2);
+        Pageable pageable = PageRequest.of(1, 2);
+        when(categoryMembershipIndex.isReady()).thenReturn(true);
+        when(categoryMembershipIndex.findBookIds(CATEGORY_ID, 2L, 2)).thenReturn(List.of(5L, 7L));
+        when(bookRepository.findRowsByIdIn(List.of(5L, 7L))).thenReturn(List.of(book1, book2));
+        when(bookMapper.toDtoWithoutCategories(any(BookRow.class))).thenAnswer(invocation -> {
+            BookRow book = invocation.getArgument(0);
+            return toBookDtoWithoutCategories(book);
+        });
+
+        List<BookDtoWithoutCategoryIds> response = categoryService
+                .getBooksByCategoryId(CATEGORY_ID, pageable);
+
+        assertEquals(List.of(toBookDtoWithoutCategories(book1),
+                toBookDtoWithoutCategories(book2)), response);
+        verify(bookRepository, never()).findByCategoryId(CATEGORY_ID, pageable);
+    }
+
+    @DisplayName("Scroll books by category id uses the membership index for keyset paging")
+    @Test
+    public void getBooksByCategoryIdAfter_IndexReady_ReturnsNextCursor() {
+        BookRow book = createBookRow(3L, TITLE1);
+        String after = Cursor.of(2L, 2L).encode();
+        when(categoryMembershipIndex.isReady()).thenReturn(true);
+        when(categoryMembershipIndex.findBookIdsAfter(CATEGORY_ID, 2L, 2))
+                .thenReturn(List.of(3L, 4L));
+        when(bookRepository.findRowsByIdIn(List.of(3L))).thenReturn(List.of(book));
+        when(bookMapper.toDtoWithoutCategories(book)).thenReturn(toBookDtoWithoutCategories(book));
+
+        CursorSliceDto<BookDtoWithoutCategoryIds> response = categoryService
+                .getBooksByCategoryIdAfter(CATEGORY_ID, after, PageRequest.of(0, 1));
+
+        assertEquals(List.of(toBookDtoWithoutCategories(book)), response.content());
+        assertEquals(3L, Cursor.decode(response.next()).id());
+    }
+
     private CategoryResponseDto categoryToDto(Category category) {
         return new CategoryResponseDto(category.getId(),
                 category.getName(),
@@ -287,27 +377,19 @@ class CategoryServiceImplTest {
         return newCategory;
     }
 
-    private BookDtoWithoutCategoryIds toBookDtoWithoutCategories(Book book) {
+    private BookDtoWithoutCategoryIds toBookDtoWithoutCategories(BookRow book) {
         BookDtoWithoutCategoryIds bookDtoWithoutCategoryIds =
                 new BookDtoWithoutCategoryIds();
-        bookDtoWithoutCategoryIds.setId(book.getId());
-        bookDtoWithoutCategoryIds.setAuthor(book.getAuthor());
-        bookDtoWithoutCategoryIds.setTitle(book.getTitle());
-        bookDtoWithoutCategoryIds.setPrice(book.getPrice());
-        bookDtoWithoutCategoryIds.setDescription(book.getDescription());
-        bookDtoWithoutCategoryIds.setCoverImage(book.getCoverImage());
+        bookDtoWithoutCategoryIds.setId(book.id());
+        bookDtoWithoutCategoryIds.setAuthor(book.author());
+        bookDtoWithoutCategoryIds.setTitle(book.title());
+        bookDtoWithoutCategoryIds.setPrice(book.price());
+        bookDtoWithoutCategoryIds.setDescription(book.description());
+        bookDtoWithoutCategoryIds.setCoverImage(book.coverImage());
         return bookDtoWithoutCategoryIds;
     }
 
-    private Book createBook(String title, String isbn) {
-        Book book = new Book();
-        book.setAuthor(AUTHOR);
-        book.setIsbn(isbn);
-        book.setPrice(PRICE);
-        book.setTitle(title);
-        book.setDescription(CATEGORY_DESCRIPTION);
-        book.setCoverImage(COVER_IMAGE);
-        book.setCategories(Set.of(category));
-        return book;
+    private BookRow createBookRow(Long id, String title) {
+        return new BookRow(id, title, AUTHOR, PRICE, CATEGORY_DESCRIPTION, COVER_IMAGE);
     }
 }
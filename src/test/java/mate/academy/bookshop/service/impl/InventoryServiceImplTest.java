@@ -0,0 +1,146 @@
+package mate.academy.bookshop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InsufficientStockException;
+import mate.academy.bookshop.repository.book.BookRepository;
+import mate.academy.bookshop.repository.book.BookStock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceImplTest {
+    private static final Long BOOK_ID = 1L;
+    private static final Long OTHER_BOOK_ID = 2L;
+    private static final int STOCK = 10;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+
+    @DisplayName("Reserve takes the requested units from available stock")
+    @Test
+    public void reserve_EnoughStock_DecrementsAvailable() {
+        when(bookRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new BookStock(BOOK_ID, STOCK)));
+
+        inventoryService.reserve(Map.of(BOOK_ID, 3));
+
+        assertEquals(STOCK - 3, inventoryService.getStock(BOOK_ID).available());
+    }
+
+    @DisplayName("Reserve releases already taken lines when a later line is short")
+    @Test
+    public void reserve_OneLineShort_ReleasesOtherLinesAndThrows() {
+        when(bookRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new BookStock(BOOK_ID, STOCK),
+                        new BookStock(OTHER_BOOK_ID, 1)));
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(BOOK_ID, 4);
+        quantities.put(OTHER_BOOK_ID, 2);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(quantities));
+
+        assertEquals("Not enough stock for book with id " + OTHER_BOOK_ID,
+                exception.getMessage());
+        assertEquals(STOCK, inventoryService.getStock(BOOK_ID).available());
+        assertEquals(1, inventoryService.getStock(OTHER_BOOK_ID).available());
+    }
+
+    @DisplayName("Concurrent reservations never take more than the available stock")
+    @Test
+    public void reserve_ConcurrentReservations_NeverOversells() throws Exception {
+        when(bookRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new BookStock(BOOK_ID, STOCK)));
+        inventoryService.getStock(BOOK_ID);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    int reserved = 0;
+                    for (int j = 0; j < STOCK; j++) {
+                        try {
+                            inventoryService.reserve(Map.of(BOOK_ID, 1));
+                            reserved++;
+                        } catch (InsufficientStockException e) {
+                            return reserved;
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+
+            assertEquals(STOCK, total);
+            assertEquals(0, inventoryService.getStock(BOOK_ID).available());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Flush writes each pending delta to the database once")
+    @Test
+    public void flush_PendingReservations_WritesDeltaOnce() {
+        when(bookRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new BookStock(BOOK_ID, STOCK)));
+        inventoryService.reserve(Map.of(BOOK_ID, 3));
+        inventoryService.restock(BOOK_ID, 1);
+
+        inventoryService.flush();
+        inventoryService.flush();
+
+        verify(bookRepository).addStock(Map.of(BOOK_ID, -2L));
+    }
+
+    @DisplayName("Refresh flushes pending deltas and reloads stock from the database")
+    @Test
+    public void refresh_PendingReservations_FlushesAndReloads() {
+        when(bookRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new BookStock(BOOK_ID, STOCK)),
+                        List.of(new BookStock(BOOK_ID, STOCK + 5)));
+        inventoryService.reserve(Map.of(BOOK_ID, 3));
+
+        inventoryService.refresh();
+
+        verify(bookRepository).addStock(Map.of(BOOK_ID, -3L));
+        assertEquals(STOCK + 5, inventoryService.getStock(BOOK_ID).available());
+    }
+
+    @DisplayName("Restock of unknown book throws EntityNotFoundException")
+    @Test
+    public void restock_UnknownBook_ThrowsEntityNotFoundException() {
+        when(bookRepository.findStocksByIdIn(anyCollection())).thenReturn(List.of());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> inventoryService.restock(BOOK_ID, 1));
+
+        assertEquals("No book with id " + BOOK_ID, exception.getMessage());
+        verify(bookRepository, never()).addStock(anyMap());
+    }
+}
@@ -2,36 +2,53 @@ package mate.academy.bookshop.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import mate.academy.bookshop.dto.CursorSliceDto;
 import mate.academy.bookshop.dto.order.OrderItemResponseDto;
 import mate.academy.bookshop.dto.order.OrderRequestDto;
 import mate.academy.bookshop.dto.order.OrderResponseDto;
+import mate.academy.bookshop.dto.order.OrderSummaryDto;
 import mate.academy.bookshop.dto.order.UpdateOrderDto;
 import mate.academy.bookshop.exception.EmptyShoppingCartException;
 import mate.academy.bookshop.exception.EntityNotFoundException;
+import mate.academy.bookshop.exception.InsufficientStockException;
+import mate.academy.bookshop.exception.InvalidCursorException;
 import mate.academy.bookshop.exception.InvalidStatusException;
 import mate.academy.bookshop.mapper.OrderItemMapper;
 import mate.academy.bookshop.mapper.OrderMapper;
+import mate.academy.bookshop.mapper.OrderSummaryMapper;
 import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.CartItem;
 import mate.academy.bookshop.model.ShoppingCart;
 import mate.academy.bookshop.model.User;
 import mate.academy.bookshop.model.order.Order;
 import mate.academy.bookshop.model.order.OrderItem;
+import mate.academy.bookshop.model.order.OrderSummary;
 import mate.academy.bookshop.model.order.Status;
 import mate.academy.bookshop.repository.CartItemRepository;
+import mate.academy.bookshop.repository.CartLine;
 import mate.academy.bookshop.repository.OrderItemRepository;
+import mate.academy.bookshop.repository.OrderItemRow;
 import mate.academy.bookshop.repository.OrderRepository;
+import mate.academy.bookshop.repository.OrderRow;
+import mate.academy.bookshop.repository.OrderSummaryRepository;
 import mate.academy.bookshop.repository.ShoppingCartRepository;
+import mate.academy.bookshop.repository.UserRepository;
+import mate.academy.bookshop.service.InventoryService;
+import mate.academy.bookshop.util.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -43,6 +60,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -50,6 +68,9 @@ class OrderServiceImplTest {
     private static final Long CART_ITEM_ID = 1L;
     private static final Long ORDER_ITEM_ID = 1L;
     private static final Long NON_EXISTING_ID = 999L;
+    private static final Long ORDER_ID = 7L;
+    private static final Long BOOK_ID = 3L;
+    private static final long FIRST_ORDER_ITEM_ID = 51L;
     private static final int QUANTITY = 10;
     private static final BigDecimal PRICE = BigDecimal.TEN;
     private static final String TEST_ADDRESS = "Test address";
@@ -73,9 +94,17 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
     private OrderMapper orderMapper;
     @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+    @Mock
     private OrderItemMapper orderItemMapper;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private UserRepository userRepository;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -108,6 +137,16 @@ class OrderServiceImplTest {
     @DisplayName("Place order with valid parameters should return OrderResponseDto")
     public void placeOrder_ValidParams_ReturnsOrderResponseDto() {
         OrderRequestDto requestDto = new OrderRequestDto(TEST_ADDRESS);
+        Order savedOrder = mapToOrder(shoppingCart, requestDto);
+        savedOrder.setId(ORDER_ID);
+        when(shoppingCartRepository.lockIdByUserId(USER_ID))
+                .thenReturn(Optional.of(shoppingCart.getId()));
+        when(cartItemRepository.findOrderableLines(shoppingCart.getId()))
+                .thenReturn(List.of(new CartLine(BOOK_ID, QUANTITY)));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(savedOrder);
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+        when(orderItemRepository.reserveIds(1)).thenReturn(FIRST_ORDER_ITEM_ID);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(savedOrder));
         OrderResponseDto expected = new OrderResponseDto(
                 ORDER_ITEM_ID,
                 user.getId(),
@@ -115,28 +154,45 @@ class OrderServiceImplTest {
                 LocalDateTime.now(),
                 PRICE,
                 STATUS_PENDING);
-        Order order = mapToOrder(shoppingCart, requestDto);
-        when(shoppingCartRepository.findByUserId(any(Long.class)))
-                .thenReturn(Optional.ofNullable(shoppingCart));
-        when(orderMapper.fromShoppingCart(any(ShoppingCart.class), any(OrderRequestDto.class)))
-                .thenReturn(order);
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(orderMapper.toDto(any(Order.class))).thenReturn(expected);
+        when(orderMapper.toDto(savedOrder)).thenReturn(expected);
 
         OrderResponseDto actual = orderService.placeOrder(requestDto, user.getId());
 
         assertEquals(expected, actual);
+        verify(inventoryService).reserve(Map.of(BOOK_ID, QUANTITY));
+        verify(orderItemRepository).insertFromShoppingCart(ORDER_ID, shoppingCart.getId(),
+                FIRST_ORDER_ITEM_ID);
+        verify(orderRepository).updateTotal(ORDER_ID);
+        verify(orderSummaryRepository).insertForOrder(ORDER_ID);
+        verify(cartItemRepository).deleteAllByShoppingCartId(shoppingCart.getId());
+    }
+
+    @Test
+    @DisplayName("Place order without enough stock should throw InsufficientStockException")
+    public void placeOrder_NotEnoughStock_ThrowsInsufficientStockException() {
+        when(shoppingCartRepository.lockIdByUserId(USER_ID))
+                .thenReturn(Optional.of(shoppingCart.getId()));
+        when(cartItemRepository.findOrderableLines(shoppingCart.getId()))
+                .thenReturn(List.of(new CartLine(BOOK_ID, QUANTITY),
+                        new CartLine(BOOK_ID, QUANTITY)));
+        doThrow(new InsufficientStockException("Not enough stock for book with id " + BOOK_ID))
+                .when(inventoryService).reserve(Map.of(BOOK_ID, QUANTITY * 2));
+
+        assertThrows(InsufficientStockException.class, ()
+                -> orderService.placeOrder(new OrderRequestDto(TEST_ADDRESS), user.getId()));
+
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
     }
 
     @Test
     @DisplayName("Place order with empty shopping cart"
             + " should throw EmptyShoppingCartException")
     public void placeOrder_EmptyShoppingCart_ThrowsEmptyShoppingCartException() {
-        ShoppingCart emptyShoppingCart = new ShoppingCart();
-        emptyShoppingCart.setCartItems(new HashSet<>());
         String expected = "Shopping cart is empty for user id " + user.getId();
-        when(shoppingCartRepository.findByUserId(any(Long.class)))
-                .thenReturn(Optional.ofNullable(emptyShoppingCart));
+        when(shoppingCartRepository.lockIdByUserId(any(Long.class)))
+                .thenReturn(Optional.of(shoppingCart.getId()));
+        when(cartItemRepository.findOrderableLines(shoppingCart.getId()))
+                .thenReturn(List.of());
 
         EmptyShoppingCartException exception = assertThrows(EmptyShoppingCartException.class, ()
                 -> orderService.placeOrder(any(OrderRequestDto.class), user.getId()));
@@ -149,7 +205,7 @@ class OrderServiceImplTest {
     @DisplayName("Place order with non-existing shopping cart"
             + " should throw EntityNotFoundException")
     public void placeOrder_NonExistingShoppingCart_ThrowsEntityNotFoundException() {
-        when(shoppingCartRepository.findByUserId(any(Long.class)))
+        when(shoppingCartRepository.lockIdByUserId(any(Long.class)))
                 .thenReturn(Optional.empty());
         String expected = "No shopping cart for user id " + user.getId();
 
@@ -178,9 +234,41 @@ class OrderServiceImplTest {
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderMapper.toDto(any(Order.class))).thenReturn(expected);
 
-        OrderResponseDto actual = orderService.update(any(Long.class), requestDto);
+        OrderResponseDto actual = orderService.update(ORDER_ID, requestDto);
 
         assertEquals(expected, actual);
+        verify(orderSummaryRepository).updateStatus(ORDER_ID, Status.DELIVERED);
+    }
+
+    @Test
+    @DisplayName("Get order summaries should read only from the summary table")
+    public void getOrderSummaries_ValidParams_ReturnsListOfOrderSummaryDto() {
+        OrderSummary summary = new OrderSummary();
+        summary.setOrderId(ORDER_ID);
+        summary.setUserId(USER_ID);
+        summary.setStatus(Status.PENDING);
+        OrderSummaryDto expected = new OrderSummaryDto(ORDER_ID, USER_ID, LocalDateTime.now(),
+                STATUS_PENDING, PRICE, 1, "Title");
+        Pageable pageable = PageRequest.of(PAGE, SIZE);
+        when(orderSummaryRepository.findByUserId(USER_ID, pageable))
+                .thenReturn(List.of(summary));
+        when(orderSummaryMapper.toDto(summary)).thenReturn(expected);
+
+        List<OrderSummaryDto> actual = orderService.getOrderSummaries(USER_ID, pageable);
+
+        assertEquals(List.of(expected), actual);
+        verify(orderRepository, never()).findOrderIdsByUserId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Get all order summaries with unsupported status"
+            + " should throw InvalidStatusException")
+    public void getAllOrderSummaries_UnsupportedStatus_ThrowsInvalidStatusException() {
+        InvalidStatusException exception = assertThrows(InvalidStatusException.class, ()
+                -> orderService.getAllOrderSummaries(INVALID_STATUS, PageRequest.of(PAGE, SIZE)));
+
+        assertEquals("Invalid status: " + INVALID_STATUS, exception.getMessage());
+        verify(orderSummaryRepository, never()).findLatestByStatus(any(), any());
     }
 
     @Test
@@ -215,7 +303,10 @@ class OrderServiceImplTest {
 
     @Test
     public void getOrders_ValidParams_ReturnsListOfUserOrders() {
-        Order order = new Order();
+        OrderRow orderRow = new OrderRow(ORDER_ITEM_ID, USER_ID, LocalDateTime.now(), PRICE,
+                Status.DELIVERED);
+        OrderItemRow itemRow = new OrderItemRow(ORDER_ITEM_ID, ORDER_ITEM_ID, ORDER_ITEM_ID,
+                PRICE, QUANTITY);
         Pageable pageable = PageRequest.of(PAGE, SIZE);
         OrderResponseDto orderResponseDto = new OrderResponseDto(
                 ORDER_ITEM_ID,
@@ -224,9 +315,14 @@ class OrderServiceImplTest {
                 LocalDateTime.now(),
                 PRICE,
                 STATUS_DELIVERED);
-        when(orderRepository.findAllByUserId(user.getId(), pageable))
-                .thenReturn(List.of(order));
-        when(orderMapper.toDto(any(Order.class)))
+        when(orderRepository.findOrderIdsByUserId(user.getId(), pageable))
+                .thenReturn(List.of(ORDER_ITEM_ID));
+        when(orderRepository.findRowsByIdIn(List.of(ORDER_ITEM_ID)))
+                .thenReturn(List.of(orderRow));
+        when(orderItemRepository.findRowsByOrderIdIn(List.of(ORDER_ITEM_ID)))
+                .thenReturn(List.of(itemRow));
+        when(orderItemMapper.toDto(itemRow)).thenReturn(itemResponseDto);
+        when(orderMapper.toDto(orderRow, Set.of(itemResponseDto)))
                 .thenReturn(orderResponseDto);
         List<OrderResponseDto> expected = List.of(orderResponseDto);
 
@@ -236,6 +332,61 @@ class OrderServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Scroll orders after cursor should return older orders with next cursor")
+    public void getOrdersAfter_ValidCursor_ReturnsOlderOrdersWithCursor() {
+        LocalDateTime cursorDate = LocalDateTime.of(2024, 5, 1, 12, 0);
+        LocalDateTime olderDate = cursorDate.minusDays(1);
+        OrderRow orderRow = new OrderRow(ORDER_ITEM_ID, USER_ID, olderDate, PRICE,
+                Status.PENDING);
+        Pageable pageable = PageRequest.of(PAGE, 1);
+        OrderResponseDto orderResponseDto = new OrderResponseDto(
+                ORDER_ITEM_ID,
+                user.getId(),
+                Set.of(itemResponseDto),
+                olderDate,
+                PRICE,
+                STATUS_PENDING);
+        when(orderRepository.findIdsByUserIdBefore(USER_ID, cursorDate, NON_EXISTING_ID,
+                pageable))
+                .thenReturn(new SliceImpl<>(List.of(ORDER_ITEM_ID), pageable, true));
+        when(orderRepository.findRowsByIdIn(List.of(ORDER_ITEM_ID)))
+                .thenReturn(List.of(orderRow));
+        when(orderItemRepository.findRowsByOrderIdIn(List.of(ORDER_ITEM_ID)))
+                .thenReturn(List.of());
+        when(orderMapper.toDto(orderRow, Set.of())).thenReturn(orderResponseDto);
+        String after = Cursor.of(cursorDate, NON_EXISTING_ID).encode();
+
+        CursorSliceDto<OrderResponseDto> actual = orderService
+                .getOrdersAfter(USER_ID, after, pageable);
+
+        assertEquals(List.of(orderResponseDto), actual.content());
+        assertEquals(Cursor.of(olderDate, ORDER_ITEM_ID), Cursor.decode(actual.next()));
+    }
+
+    @Test
+    @DisplayName("Scroll orders without cursor and no orders should return empty slice")
+    public void getOrdersAfter_NoOrders_ReturnsEmptySlice() {
+        Pageable pageable = PageRequest.of(PAGE, SIZE);
+        when(orderRepository.findIdsByUserId(USER_ID, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        CursorSliceDto<OrderResponseDto> actual = orderService
+                .getOrdersAfter(USER_ID, null, pageable);
+
+        assertEquals(List.of(), actual.content());
+        assertNull(actual.next());
+    }
+
+    @Test
+    @DisplayName("Scroll orders with malformed cursor should throw InvalidCursorException")
+    public void getOrdersAfter_MalformedCursor_ThrowsInvalidCursorException() {
+        String after = Cursor.of("not a date", ORDER_ITEM_ID).encode();
+
+        assertThrows(InvalidCursorException.class, ()
+                -> orderService.getOrdersAfter(USER_ID, after, PageRequest.of(PAGE, SIZE)));
+    }
+
     @Test
     @DisplayName("Get orders with valid parameters "
             + "should return list of user orders")
@@ -248,7 +399,7 @@ class OrderServiceImplTest {
         OrderItemResponseDto itemResponseDto = toDto(orderItem);
         when(orderRepository.existsById(any(Long.class)))
                 .thenReturn(true);
-        when(orderItemRepository.findByOrderId(order.getId(), pageable))
+        when(orderItemRepository.findByOrderIdOrderByIdAsc(order.getId(), pageable))
                 .thenReturn(orderItemPage);
         when(orderItemMapper.toDto(any(OrderItem.class)))
                 .thenReturn(itemResponseDto);
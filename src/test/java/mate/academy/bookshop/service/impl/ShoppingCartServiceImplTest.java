@@ -3,19 +3,24 @@ package mate.academy.bookshop.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import mate.academy.bookshop.dto.shoppingcart.CartItemDto;
 import mate.academy.bookshop.dto.shoppingcart.CartItemRequestDto;
 import mate.academy.bookshop.dto.shoppingcart.CartResponseDto;
 import mate.academy.bookshop.dto.shoppingcart.UpdateCartItemRequestDto;
+import mate.academy.bookshop.exception.CartUpdateConflictException;
 import mate.academy.bookshop.exception.EntityNotFoundException;
-import mate.academy.bookshop.mapper.CartItemMapper;
 import mate.academy.bookshop.mapper.ShoppingCartMapper;
 import mate.academy.bookshop.model.Book;
 import mate.academy.bookshop.model.CartItem;
@@ -29,9 +34,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class ShoppingCartServiceImplTest {
@@ -46,9 +56,11 @@ class ShoppingCartServiceImplTest {
     private static final Long NOT_EXISTING_USER_ID = 100L;
     private static final Long NOT_EXISTING_CART_ITEM_ID = 100L;
     private static final Long CART_ITEM_ID = 1L;
+    private static final Long SHOPPING_CART_ID = 1L;
     private static final Long BOOK_ID = 1L;
     private static final int QUANTITY = 10;
     private static final int UPDATED_QUANTITY = 11;
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
     private static final String NO_CART_ITEM_WITH_ID_MSG = "No cart item with id ";
     private static final String NO_SHOPPING_CART_FOR_USER_ID_MSG = "No shopping cart for user id ";
     private static final String NO_BOOK_WITH_ID_MSG = "No book with id ";
@@ -60,11 +72,10 @@ class ShoppingCartServiceImplTest {
     @Mock
     private ShoppingCartMapper shoppingCartMapper;
     @Mock
-    private CartItemMapper cartItemMapper;
-    @Mock
     private CartItemRepository cartItemRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
-    @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
 
     private Book book;
@@ -75,6 +86,10 @@ class ShoppingCartServiceImplTest {
 
     @BeforeEach
     public void setUp() {
+        shoppingCartService = new ShoppingCartServiceImpl(shoppingCartRepository,
+                shoppingCartMapper, bookRepository, cartItemRepository, transactionTemplate,
+                MAX_UPDATE_ATTEMPTS);
+
         user = new User();
         user.setId(USER_ID);
 
@@ -89,6 +104,7 @@ class ShoppingCartServiceImplTest {
         book.setCategories(Set.of(new Category()));
 
         shoppingCart = new ShoppingCart();
+        shoppingCart.setId(SHOPPING_CART_ID);
         shoppingCart.setUser(user);
         shoppingCart.setCartItems(new HashSet<>());
 
@@ -127,38 +143,120 @@ class ShoppingCartServiceImplTest {
         assertEquals(expected, actual);
     }
 
-    @DisplayName("Add book to shopping cart")
+    @DisplayName("Add new book to shopping cart inserts a cart item")
     @Test
-    public void addBookToShoppingCart_ValidRequestDto_ReturnsCartResponseDto() {
-        CartItem cartItem = mapToEntity(requestDto, shoppingCart);
+    public void addBookToShoppingCart_BookNotInCart_InsertsCartItem() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(cartItemRepository.incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY))
+                .thenReturn(0);
+        when(shoppingCartRepository.getReferenceById(SHOPPING_CART_ID)).thenReturn(shoppingCart);
+        when(bookRepository.getReferenceById(BOOK_ID)).thenReturn(book);
+        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
         CartResponseDto expected = new CartResponseDto(
-                CART_ITEM_ID,
+                SHOPPING_CART_ID,
                 user.getId(),
                 Set.of(cartItemDto));
-        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
-        when(bookRepository.findById(BOOK_ID)).thenReturn(Optional.of(book));
-        when(cartItemMapper.toEntity(requestDto)).thenReturn(cartItem);
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
-        when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(shoppingCart);
-        when(shoppingCartMapper.toDto(any(ShoppingCart.class))).thenReturn(expected);
+        when(shoppingCartMapper.toDto(shoppingCart)).thenReturn(expected);
 
         CartResponseDto actual = shoppingCartService.addBookToShoppingCart(requestDto,
                 user.getId());
 
         assertEquals(expected, actual);
+        ArgumentCaptor<CartItem> captor = ArgumentCaptor.forClass(CartItem.class);
+        verify(cartItemRepository).saveAndFlush(captor.capture());
+        assertEquals(book, captor.getValue().getBook());
+        assertEquals(QUANTITY, captor.getValue().getQuantity());
+    }
+
+    @DisplayName("Add book already in shopping cart increments its quantity")
+    @Test
+    public void addBookToShoppingCart_BookAlreadyInCart_IncrementsQuantity() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(cartItemRepository.incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY))
+                .thenReturn(1);
+        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
+
+        shoppingCartService.addBookToShoppingCart(requestDto, user.getId());
+
+        verify(cartItemRepository, never()).saveAndFlush(any(CartItem.class));
+    }
+
+    @DisplayName("Add book retries with increment when a concurrent insert wins")
+    @Test
+    public void addBookToShoppingCart_ConcurrentInsert_RetriesAndIncrements() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(cartItemRepository.incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY))
+                .thenReturn(0, 1);
+        when(shoppingCartRepository.getReferenceById(SHOPPING_CART_ID)).thenReturn(shoppingCart);
+        when(bookRepository.getReferenceById(BOOK_ID)).thenReturn(book);
+        when(cartItemRepository.saveAndFlush(any(CartItem.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry",
+                        new SQLIntegrityConstraintViolationException("Duplicate entry",
+                                "23000", 1062)));
+        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
+
+        shoppingCartService.addBookToShoppingCart(requestDto, user.getId());
+
+        verify(cartItemRepository, times(2))
+                .incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY);
+    }
+
+    @DisplayName("Add book does not retry integrity violations other than duplicate keys")
+    @Test
+    public void addBookToShoppingCart_ForeignKeyViolation_ThrowsWithoutRetry() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(cartItemRepository.incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY))
+                .thenReturn(0);
+        when(shoppingCartRepository.getReferenceById(SHOPPING_CART_ID)).thenReturn(shoppingCart);
+        when(bookRepository.getReferenceById(BOOK_ID)).thenReturn(book);
+        when(cartItemRepository.saveAndFlush(any(CartItem.class)))
+                .thenThrow(new DataIntegrityViolationException("Foreign key violation",
+                        new SQLIntegrityConstraintViolationException("Foreign key violation",
+                                "23000", 1452)));
+
+        assertThrows(DataIntegrityViolationException.class, ()
+                -> shoppingCartService.addBookToShoppingCart(requestDto, user.getId()));
+
+        verify(cartItemRepository, times(1)).saveAndFlush(any(CartItem.class));
+    }
+
+    @DisplayName("Add book gives up after max attempts with CartUpdateConflictException")
+    @Test
+    public void addBookToShoppingCart_PersistentConflict_ThrowsCartUpdateConflictException() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(cartItemRepository.incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"));
+
+        assertThrows(CartUpdateConflictException.class, ()
+                -> shoppingCartService.addBookToShoppingCart(requestDto, user.getId()));
+
+        verify(cartItemRepository, times(MAX_UPDATE_ATTEMPTS))
+                .incrementQuantity(SHOPPING_CART_ID, BOOK_ID, QUANTITY);
     }
 
     @DisplayName("Add not existing book to shopping cart throws EntityNotFoundException")
     @Test
     public void addBookToShoppingCart_InvalidRequestDto_ThrowsEntityNotFoundException() {
+        runTransactionsInline();
         requestDto = new CartItemRequestDto(NOT_EXISTING_BOOK_ID, QUANTITY);
-        CartItem cartItem = mapToEntity(requestDto, shoppingCart);
-        Book bookWithNotExistingId = new Book();
-        bookWithNotExistingId.setId(NOT_EXISTING_BOOK_ID);
-        cartItem.setBook(bookWithNotExistingId);
-        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
-        when(cartItemMapper.toEntity(requestDto)).thenReturn(cartItem);
-        when(bookRepository.findById(NOT_EXISTING_BOOK_ID)).thenReturn(Optional.empty());
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(bookRepository.existsById(NOT_EXISTING_BOOK_ID)).thenReturn(false);
         String expected = NO_BOOK_WITH_ID_MSG + NOT_EXISTING_BOOK_ID;
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, ()
@@ -173,7 +271,12 @@ class ShoppingCartServiceImplTest {
     public void updateBookQuantityByCartItemId_ValidCartItemId_ReturnsCartResponseDto() {
         CartItem cartItem = new CartItem();
         cartItem.setId(CART_ITEM_ID);
-        shoppingCart.setCartItems(Set.of(cartItem));
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(cartItemRepository.findByIdAndShoppingCartId(CART_ITEM_ID, SHOPPING_CART_ID))
+                .thenReturn(Optional.of(cartItem));
+        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
         UpdateCartItemRequestDto updateRequest = new UpdateCartItemRequestDto(UPDATED_QUANTITY);
         CartItemDto updatedCartItemDto = new CartItemDto(
                 CART_ITEM_ID,
@@ -181,11 +284,9 @@ class ShoppingCartServiceImplTest {
                 book.getTitle(),
                 updateRequest.quantity());
         CartResponseDto expected = new CartResponseDto(
-                CART_ITEM_ID,
+                SHOPPING_CART_ID,
                 user.getId(),
                 Set.of(updatedCartItemDto));
-
-        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
         when(shoppingCartMapper.toDto(any(ShoppingCart.class))).thenReturn(expected);
 
         CartResponseDto actual = shoppingCartService.updateBookQuantityByCartItemId(
@@ -194,14 +295,47 @@ class ShoppingCartServiceImplTest {
                 updateRequest);
 
         assertEquals(expected, actual);
+        assertEquals(UPDATED_QUANTITY, cartItem.getQuantity());
+        verify(cartItemRepository).saveAndFlush(cartItem);
+    }
+
+    @DisplayName("Update book quantity retries after an optimistic lock failure")
+    @Test
+    public void updateBookQuantityByCartItemId_StaleVersion_RetriesWithFreshCartItem() {
+        CartItem stale = new CartItem();
+        stale.setId(CART_ITEM_ID);
+        stale.setVersion(0L);
+        CartItem fresh = new CartItem();
+        fresh.setId(CART_ITEM_ID);
+        fresh.setVersion(1L);
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(cartItemRepository.findByIdAndShoppingCartId(CART_ITEM_ID, SHOPPING_CART_ID))
+                .thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(cartItemRepository.saveAndFlush(stale))
+                .thenThrow(new ObjectOptimisticLockingFailureException(CartItem.class,
+                        CART_ITEM_ID));
+        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
+        UpdateCartItemRequestDto updateRequest = new UpdateCartItemRequestDto(UPDATED_QUANTITY);
+
+        shoppingCartService.updateBookQuantityByCartItemId(CART_ITEM_ID, user.getId(),
+                updateRequest);
+
+        verify(cartItemRepository).saveAndFlush(fresh);
+        assertEquals(UPDATED_QUANTITY, fresh.getQuantity());
     }
 
     @DisplayName("Update book quantity by invalid cart item id throws EntityNotFoundException")
     @Test
     public void updateBookQuantityByCartItemId_InvalidCartItemId_ThrowsEntityNotFoundException() {
+        runTransactionsInline();
+        when(shoppingCartRepository.findIdByUserId(USER_ID))
+                .thenReturn(Optional.of(SHOPPING_CART_ID));
+        when(cartItemRepository.findByIdAndShoppingCartId(NOT_EXISTING_CART_ITEM_ID,
+                SHOPPING_CART_ID)).thenReturn(Optional.empty());
         String expected = NO_CART_ITEM_WITH_ID_MSG + NOT_EXISTING_CART_ITEM_ID;
         UpdateCartItemRequestDto updateRequest = new UpdateCartItemRequestDto(UPDATED_QUANTITY);
-        when(shoppingCartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(shoppingCart));
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, ()
                 -> shoppingCartService.updateBookQuantityByCartItemId(
@@ -254,11 +388,10 @@ class ShoppingCartServiceImplTest {
         assertEquals(expected, actual);
     }
 
-    private CartItem mapToEntity(CartItemRequestDto requestDto, ShoppingCart shoppingCart) {
-        CartItem cartItem = new CartItem();
-        cartItem.setShoppingCart(shoppingCart);
-        cartItem.setBook(book);
-        cartItem.setQuantity(requestDto.quantity());
-        return cartItem;
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 }
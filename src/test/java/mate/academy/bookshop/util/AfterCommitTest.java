@@ -0,0 +1,55 @@
+package mate.academy.bookshop.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AfterCommitTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("Action runs immediately outside a transaction")
+    @Test
+    public void run_NoTransaction_RunsImmediately() {
+        AfterCommit.run(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @DisplayName("Action is deferred until the transaction commits")
+    @Test
+    public void run_InTransaction_RunsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, runs.get());
+    }
+
+    @DisplayName("Action is dropped when the transaction rolls back")
+    @Test
+    public void run_RolledBack_NeverRuns() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization
+                -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, runs.get());
+    }
+}
@@ -0,0 +1,60 @@
+package mate.academy.bookshop.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsonwebtoken.Claims;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "dpas0-dik-a90jdf09gh903r032opnpfsad{}320rjnsf/>OPJ/f";
+    private static final String EMAIL = "user@example.com";
+    private static final long EXPIRATION = 300000L;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+    }
+
+    @DisplayName("Valid token is parsed into its claims")
+    @Test
+    public void parseAndValidate_ValidToken_ReturnsClaims() {
+        String token = jwtUtil.generateToken(EMAIL);
+
+        Optional<Claims> response = jwtUtil.parseAndValidate(token);
+
+        assertTrue(response.isPresent());
+        assertEquals(EMAIL, response.get().getSubject());
+    }
+
+    @DisplayName("Expired token is rejected")
+    @Test
+    public void parseAndValidate_ExpiredToken_ReturnsEmpty() {
+        String token = new JwtUtil(SECRET, -1000L).generateToken(EMAIL);
+
+        assertFalse(jwtUtil.parseAndValidate(token).isPresent());
+    }
+
+    @DisplayName("Token signed with another key is rejected")
+    @Test
+    public void parseAndValidate_ForeignSignature_ReturnsEmpty() {
+        JwtUtil foreignJwtUtil = new JwtUtil(new StringBuilder(SECRET).reverse().toString(),
+                EXPIRATION);
+        String token = foreignJwtUtil.generateToken(EMAIL);
+
+        assertFalse(jwtUtil.parseAndValidate(token).isPresent());
+    }
+
+    @DisplayName("Malformed token is rejected")
+    @Test
+    public void parseAndValidate_MalformedToken_ReturnsEmpty() {
+        assertFalse(jwtUtil.parseAndValidate("not a token").isPresent());
+    }
+}
@@ -0,0 +1 @@
+UPDATE books SET stock = 100;
@@ -1,3 +1,9 @@
+-- Delete the order summaries
+DELETE FROM order_summaries;
+
+-- Delete the order requests
+DELETE FROM order_requests;
+
 -- Delete order items
 DELETE FROM order_items;
 ALTER TABLE order_items AUTO_INCREMENT = 1;
@@ -9,3 +9,6 @@ VALUES (1, 1, '2024-01-01 00:00:00', 'PENDING', 10, 'test');
 -- Insert order item
 INSERT INTO order_items (id, book_id, order_id, price, quantity)
 VALUES (1, 1, 1, 10, 2);
+
+-- Keep generated ids above the fixed ids
+UPDATE id_generators SET next_value = next_value + 50 WHERE name IN ('orders', 'order_items');